@@ -8,16 +8,47 @@ package nz.ac.auckland.se281;
 public enum Command {
   OPEN_FILE(1, "Open the file <FILENAME>"),
   INFO(0, "Print information about the current loaded file"),
+  WATCH_FILE(0, "Reload the current loaded file whenever it changes"),
 
   LIST_VERTICIES_EDGES(0, "List the set of vertices and edges"),
+  LIST_VERTICIES(2, "List at most <LIMIT> vertices, starting from the vertex at <OFFSET>"),
+  LIST_EDGES(2, "List at most <LIMIT> edges, starting from the edge at <OFFSET>"),
   LIST_ROOT_VERTICIES(0, "List the set of root vertices"),
+  LIST_SCCS(0, "List the strongly connected components of the graph"),
+  LIST_CONDENSATION(0, "List the components and edges of the condensation of the graph"),
+  LIST_WCCS(0, "List the weakly connected components of the graph"),
+  TRANSITIVE_CLOSURE(0, "List the edges of the transitive closure of the graph"),
+  CLOSURE_SIZE(0, "Count the edges of the transitive closure of the graph"),
+  TOPOLOGICAL_SORT(0, "List a topological order of the graph and its layers"),
+  DEGREE_STATS(0, "Summarise the size, degrees and density of the graph"),
+  DEGREE_HISTOGRAM(0, "Summarise the graph and list how many vertices have each range of degrees"),
+  PAGERANK(1, "List the <COUNT> vertices with the highest PageRank"),
+  DEGREE_CENTRALITY(1, "List the <COUNT> vertices with the highest degree centrality"),
+  ADJACENCY_SIZE(0, "Compare the size of the adjacency as plain and compressed rows"),
+  ADJACENCY_ORDERINGS(0, "Compare the size of the compressed rows under each vertex ordering"),
 
   CHECK_REFLEXIVITY(0, "Check reflexivity of the graph"),
   CHECK_SYMMETRY(0, "Check symmetry of the graph"),
   CHECK_TRANSITIVITY(0, "Check transitivity of the graph"),
   CHECK_ANTISYMMETRY(0, "Check anti-symmetry of the graph"),
   CHECK_EQUIVALENCE(0, "Check equivalence of the graph"),
+  CHECK_ALL(0, "Check every relation property of the graph in one pass"),
+  CHECK_ACYCLIC(0, "Check if the graph has no cycles, and show a cycle if it has one"),
   COMPUTE_EQUIVALENCE(1, "Compute equivalence class for a vertex in loaded file <VERTEX>"),
+  REACHABLE(2, "Check if there is a path from vertex <SOURCE> to vertex <DESTINATION>"),
+  SHORTEST_PATH(
+      2, "Compute the path with fewest edges from vertex <SOURCE> to vertex <DESTINATION>"),
+  HOP_DISTANCES(
+      1,
+      "Compute the fewest edges from each vertex in the comma-separated list <SOURCES> to each"
+          + " vertex it reaches"),
+  ROOT_HOP_DISTANCES(0, "Compute the fewest edges from each root vertex to each vertex it reaches"),
+  REACHABLE_FROM(
+      1, "List every vertex reachable from a vertex in the comma-separated list <SOURCES>"),
+  DIJKSTRA_DISTANCES(
+      1, "Compute the shortest weighted distance from vertex <SOURCE> to each vertex it reaches"),
+  DIJKSTRA_PATH(
+      2, "Compute the shortest weighted path from vertex <SOURCE> to vertex <DESTINATION>"),
 
   GRAPH_SEARCH_IBFS(
       0, "Perform a breadth-first search on the current loaded file, and display the BFS order"),
@@ -33,6 +64,15 @@ public enum Command {
       "Perform a recursive depth-first search on the current loaded file, and display the DFS"
           + " order"),
 
+  GRAPH_SEARCH_PBFS(
+      0,
+      "Perform a breadth-first search with the components of the graph searched in parallel, and"
+          + " display the BFS order"),
+  GRAPH_SEARCH_PDFS(
+      0,
+      "Perform a depth-first search with the components of the graph searched in parallel, and"
+          + " display the DFS order"),
+
   HELP(0, "Print usage"),
   EXIT(0, "Exit the application");
 
@@ -0,0 +1,76 @@
+package nz.ac.auckland.se281;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches one file with a {@link WatchService} on its folder, and runs an action on a daemon
+ * thread each time the file is created or modified. Several events that arrive together only run
+ * the action once.
+ */
+public class FileWatcher implements Closeable {
+  private final Path file;
+
+  private final WatchService service;
+
+  /**
+   * Starts watching a file.
+   *
+   * @param file The file to watch.
+   * @param onChange The action to run after the file changes.
+   * @throws IOException If the folder of the file cannot be watched.
+   */
+  public FileWatcher(final Path file, final Runnable onChange) throws IOException {
+    this.file = file.toAbsolutePath();
+    service = this.file.getFileSystem().newWatchService();
+    this.file.getParent().register(service, ENTRY_CREATE, ENTRY_MODIFY);
+
+    final Thread thread = new Thread(() -> watch(onChange), "watch-" + file.getFileName());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Waits for events until the watcher is closed.
+   *
+   * @param onChange The action to run after the file changes.
+   */
+  private void watch(final Runnable onChange) {
+    try {
+      while (true) {
+        final WatchKey key = service.take();
+        boolean changed = false;
+
+        // Events name files relative to the watched folder.
+        for (final WatchEvent<?> event : key.pollEvents()) {
+          changed |= file.getFileName().equals(event.context());
+        }
+        key.reset();
+
+        if (changed) {
+          onChange.run();
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      // The watcher was closed, so stop watching.
+    }
+  }
+
+  /**
+   * Stops watching the file.
+   *
+   * @throws IOException If the watch service cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    service.close();
+  }
+}
@@ -3,15 +3,35 @@ package nz.ac.auckland.se281;
 import com.paypal.digraph.parser.GraphEdge;
 import com.paypal.digraph.parser.GraphNode;
 import com.paypal.digraph.parser.GraphParser;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import nz.ac.auckland.se281.datastructures.CompressedAdjacency;
+import nz.ac.auckland.se281.datastructures.DegreeStatistics;
 import nz.ac.auckland.se281.datastructures.Edge;
 import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphSnapshot;
+import nz.ac.auckland.se281.datastructures.GraphStorage;
+import nz.ac.auckland.se281.datastructures.RelationProperties;
+import nz.ac.auckland.se281.datastructures.VertexOrdering;
 
 /**
  * The calculator that reports properties of graphs to the user.
@@ -21,41 +41,314 @@ import nz.ac.auckland.se281.datastructures.Graph;
 public class GraphCalculator {
   private static final Path TESTCASES = Path.of("testcases");
 
+  private static final String WEIGHT_ATTRIBUTE = "weight";
+
+  // Bounds of the cache of command outputs, which holds up to about 32 MiB of text
+  private static final int MAX_CACHED_RESULTS = 64;
+
+  private static final long MAX_CACHED_CHARS = 1L << 24;
+
   private final Path file;
 
-  private final Collection<GraphNode> verticies;
+  private final Object reloadLock = new Object();
+
+  // Replaced together on every reload, so readers never lock
+  private volatile List<GraphNode> verticies;
+
+  private volatile List<GraphEdge> edges;
+
+  // Immutable, so one calculator can serve several sessions at once, and null until first used
+  private volatile GraphSnapshot<String> graph;
 
-  private final Collection<GraphEdge> edges;
+  // The graph and the text it was loaded from, only used while holding the reload lock. The graph
+  // is null until a command first needs it, so commands that only list the file stay cheap, and
+  // is never built with off-heap storage, where the snapshot is indexed straight from the file.
+  private Graph<String> loadedGraph;
 
-  private final Graph<String> graph;
+  private String loadedText;
+
+  // What the graph keeps up to date as it changes, copied out once per version so the commands
+  // that read it never lock, and null until a command first needs it after each change
+  private volatile MaintainedState maintained;
+
+  private FileWatcher watcher;
+
+  // Counts every change of the graph, so outputs cached for an older graph are never returned
+  private volatile long version;
+
+  private final ResultCache results = new ResultCache(MAX_CACHED_RESULTS, MAX_CACHED_CHARS);
 
   /**
    * Creates a new graph calculator.
    *
    * @param filename The name of the test case to read.
    * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If an edge has a weight that is not a finite number, with
+   *     the weight as its message.
    */
   public GraphCalculator(final String filename) throws FileNotFoundException {
     file = TESTCASES.resolve(filename);
 
-    final GraphParser parser = new GraphParser(new FileInputStream(file.toFile()));
+    try (FileInputStream input = new FileInputStream(file.toFile())) {
+      load(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Parses the whole text of a file, leaving its graph to be built when it is first needed. Every
+   * weight is checked first, so a file with a bad weight is rejected when it is opened and leaves
+   * the graph already loaded unchanged.
+   *
+   * @param text The text of the file.
+   * @throws IllegalArgumentException If an edge has a weight that is not a finite number.
+   */
+  private void load(final String text) {
+    final GraphParser parser = parse(text);
+    checkWeights(parser.getEdges().values());
+
+    loadedGraph = null;
+    loadedText = text;
+    this.verticies = new ArrayList<>(parser.getNodes().values());
+    this.edges = new ArrayList<>(parser.getEdges().values());
+    graph = null;
+    maintained = null;
+    changed();
+  }
+
+  /**
+   * Moves on to the next version of the graph after it has been replaced, dropping every cached
+   * output. Must be called while holding the reload lock, after the snapshot has been cleared.
+   */
+  private void changed() {
+    version++;
+    results.clear();
+  }
+
+  /**
+   * Gets the snapshot of the graph, building the graph and its index the first time any command
+   * needs them, and the snapshot again after the file changes. With off-heap storage the index is
+   * built straight from the parsed edges instead, so the adjacency of the graph is never also held
+   * in a graph on the heap.
+   *
+   * @return The current snapshot of the graph.
+   */
+  private GraphSnapshot<String> graph() {
+    final GraphSnapshot<String> current = graph;
+    if (current != null) {
+      return current;
+    }
+
+    synchronized (reloadLock) {
+      if (graph == null) {
+        if (GraphStorage.configured() == GraphStorage.OFF_HEAP) {
+          graph = buildSnapshot();
+        } else {
+          if (loadedGraph == null) {
+            loadedGraph = buildGraph();
+          }
+          graph = loadedGraph.snapshot();
+        }
+      }
+      return graph;
+    }
+  }
+
+  /**
+   * Gets the relation properties and root verticies of the current version of the graph. The
+   * first command after each change copies them out of the graph, which keeps them up to date
+   * itself, while holding the reload lock. Every later command reads the copy without locking.
+   * With off-heap storage there is no graph, and the copy is taken from the snapshot instead.
+   *
+   * @return The maintained state of the current version of the graph.
+   */
+  private MaintainedState maintained() {
+    final MaintainedState current = maintained;
+    if (current != null) {
+      return current;
+    }
 
-    this.verticies = parser.getNodes().values();
-    this.edges = parser.getEdges().values();
+    synchronized (reloadLock) {
+      if (maintained == null) {
+        if (GraphStorage.configured() == GraphStorage.OFF_HEAP) {
+          maintained = new MaintainedState(graph());
+        } else {
+          if (loadedGraph == null) {
+            loadedGraph = buildGraph();
+          }
+          maintained = new MaintainedState(loadedGraph);
+        }
+      }
+      return maintained;
+    }
+  }
 
-    final Set<String> verticies = new HashSet<>();
+  /**
+   * Builds a snapshot of the verticies and edges parsed from the file, without building a graph.
+   *
+   * @return The snapshot of the file.
+   */
+  private GraphSnapshot<String> buildSnapshot() {
+    final Set<String> vertexIds = new HashSet<>();
 
-    for (final GraphNode node : this.verticies) {
-      verticies.add(node.getId());
+    for (final GraphNode node : verticies) {
+      vertexIds.add(node.getId());
     }
 
-    final Set<Edge<String>> edges = new HashSet<>();
+    final List<Edge<String>> graphEdges = new ArrayList<>(edges.size());
 
-    for (final GraphEdge edge : this.edges) {
-      edges.add(new Edge<>(edge.getNode1().getId(), edge.getNode2().getId()));
+    for (final GraphEdge edge : edges) {
+      graphEdges.add(
+          new Edge<>(edge.getNode1().getId(), edge.getNode2().getId(), parseWeight(edge)));
     }
 
-    graph = new Graph<>(verticies, edges);
+    return Graph.snapshotOf(vertexIds, graphEdges, GraphStorage.OFF_HEAP);
+  }
+
+  /**
+   * Builds the graph of the verticies and edges parsed from the file.
+   *
+   * @return The graph of the file.
+   */
+  private Graph<String> buildGraph() {
+    final Set<String> vertexIds = new HashSet<>();
+
+    for (final GraphNode node : verticies) {
+      vertexIds.add(node.getId());
+    }
+
+    final Set<Edge<String>> graphEdges = new HashSet<>();
+
+    for (final GraphEdge edge : edges) {
+      graphEdges.add(
+          new Edge<>(edge.getNode1().getId(), edge.getNode2().getId(), parseWeight(edge)));
+    }
+
+    return new Graph<>(vertexIds, graphEdges, GraphStorage.HEAP);
+  }
+
+  /**
+   * Reads the file again and brings the graph up to date with it. If the only change is text added
+   * before the closing brace, such as new edges, only that text is parsed and its edges are added
+   * to the loaded graph, if it has been built. The graph updates its counters, root verticies and
+   * topological order edge by edge, so the property checks and the root listing carry on from the
+   * delta without rebuilding anything. Any other change parses the whole file again.
+   *
+   * <p>The snapshot is still dropped after an append, so the next command that needs it indexes
+   * the graph again, along with its components, closure, reachability index, compressed adjacency
+   * and PageRank. These are immutable arrays over ids given in sorted vertex order, so a new vertex
+   * renumbers every later vertex, and one new edge can merge components or change every score. With
+   * off-heap storage there is no loaded graph, so the next command indexes the whole edge list.
+   *
+   * @throws IOException If the file cannot be read.
+   * @throws IllegalArgumentException If an edge has a weight that is not a finite number, in which
+   *     case the graph is left as it was.
+   */
+  public void reload() throws IOException {
+    final String text = Files.readString(file, StandardCharsets.UTF_8);
+
+    synchronized (reloadLock) {
+      if (text.equals(loadedText)) {
+        return;
+      }
+
+      // The old text up to its closing brace must be unchanged for the new text to be appended.
+      final int oldClose = loadedText.lastIndexOf('}');
+      final int newClose = text.lastIndexOf('}');
+      if (oldClose < 0
+          || newClose < oldClose
+          || !text.startsWith(loadedText.substring(0, oldClose))) {
+        load(text);
+        return;
+      }
+
+      final GraphParser delta = parse("digraph delta {" + text.substring(oldClose, newClose) + "}");
+      checkWeights(delta.getEdges().values());
+      final Set<String> vertexIds = new HashSet<>();
+      final List<GraphNode> verticies = new ArrayList<>(this.verticies);
+      final List<GraphEdge> edges = new ArrayList<>(this.edges);
+
+      for (final GraphNode node : verticies) {
+        vertexIds.add(node.getId());
+      }
+
+      // A graph that has not been built yet is built from the new lists when it is first needed.
+      for (final GraphNode node : delta.getNodes().values()) {
+        if (vertexIds.add(node.getId())) {
+          verticies.add(node);
+          if (loadedGraph != null) {
+            loadedGraph.addVertex(node.getId());
+          }
+        }
+      }
+
+      for (final GraphEdge edge : delta.getEdges().values()) {
+        edges.add(edge);
+        if (loadedGraph != null) {
+          loadedGraph.addEdge(edge.getNode1().getId(), edge.getNode2().getId(), parseWeight(edge));
+        }
+      }
+
+      loadedText = text;
+      this.verticies = verticies;
+      this.edges = edges;
+      graph = null;
+      maintained = null;
+      changed();
+    }
+  }
+
+  /**
+   * Starts reloading the graph whenever its file changes, unless it is already being watched.
+   *
+   * @return If the file was not already being watched.
+   * @throws IOException If the file cannot be watched.
+   */
+  public boolean watch() throws IOException {
+    synchronized (reloadLock) {
+      if (watcher != null) {
+        return false;
+      }
+
+      watcher =
+          new FileWatcher(
+              file,
+              () -> {
+                try {
+                  reload();
+                } catch (IOException | RuntimeException e) {
+                  // A file caught halfway through being rewritten is read again on its next change.
+                }
+              });
+      return true;
+    }
+  }
+
+  /**
+   * Stops reloading the graph when its file changes.
+   *
+   * @throws IOException If the watcher cannot be stopped.
+   */
+  public void stopWatching() throws IOException {
+    synchronized (reloadLock) {
+      if (watcher != null) {
+        watcher.close();
+        watcher = null;
+      }
+    }
+  }
+
+  /**
+   * Parses the text of a DOT file.
+   *
+   * @param text The text to parse.
+   * @return The parser holding the verticies and edges of the text.
+   */
+  private GraphParser parse(final String text) {
+    return new GraphParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
   }
 
   /** Prints the filename of the test case that is loaded. */
@@ -63,57 +356,483 @@ public class GraphCalculator {
     MessageCli.INFO.printMessage(TESTCASES.relativize(file).toString());
   }
 
-  /** Prints the set of verticies and edges in the graph. */
+  /** Starts watching the file for changes, printing if it was already being watched. */
+  public void printWatch() {
+    try {
+      if (watch()) {
+        MessageCli.WATCHING_FILE.printMessage(TESTCASES.relativize(file).toString());
+      } else {
+        MessageCli.ALREADY_WATCHING.printMessage(TESTCASES.relativize(file).toString());
+      }
+    } catch (IOException e) {
+      MessageCli.WATCH_FAILED.printMessage(TESTCASES.relativize(file).toString());
+    }
+  }
+
+  /** Prints that the file cannot be watched, as other sessions share the calculator. */
+  public void printWatchShared() {
+    MessageCli.WATCH_SHARED.printMessage(TESTCASES.relativize(file).toString());
+  }
+
+  /**
+   * Prints the set of verticies and edges in the graph. Each line is streamed out as it is written,
+   * so the listing needs no memory beyond the parsed file however large the graph is.
+   */
   public void printVerticiesEdges() {
-    final StringBuilder sb = new StringBuilder("Verticies:").append(System.lineSeparator());
+    // Read both lists from one load, in case the file is reloaded in between.
+    final List<GraphNode> verticies = this.verticies;
+    final List<GraphEdge> edges = this.edges;
+    final PrintWriter out = newStreamingWriter();
 
-    // Vertically print each vertex.
-    for (final GraphNode node : verticies) {
-      sb.append("\t").append(node.getId()).append(System.lineSeparator());
+    out.print("Verticies:" + System.lineSeparator());
+    writeVerticies(out, verticies);
+    out.print(System.lineSeparator() + "Edges:" + System.lineSeparator());
+    writeEdges(out, edges);
+    out.flush();
+  }
+
+  /**
+   * Prints a page of the verticies of the graph, in the order they appear in the file.
+   *
+   * @param offset The position of the first vertex to print, counting from 0.
+   * @param limit The largest number of verticies to print.
+   */
+  public void printVerticiesPage(final String offset, final String limit) {
+    final List<GraphNode> verticies = this.verticies;
+    final int[] page = parsePage(offset, limit, verticies.size());
+    if (page == null) {
+      return;
     }
 
-    sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
+    final PrintWriter out = newStreamingWriter();
+    MessageCli.PAGE.printMessage(
+        "Verticies",
+        String.valueOf(page[0]),
+        String.valueOf(page[1] - page[0]),
+        String.valueOf(verticies.size()));
+    writeVerticies(out, verticies.subList(page[0], page[1]));
+    out.flush();
+  }
+
+  /**
+   * Prints a page of the edges of the graph, in the order they appear in the file.
+   *
+   * @param offset The position of the first edge to print, counting from 0.
+   * @param limit The largest number of edges to print.
+   */
+  public void printEdgesPage(final String offset, final String limit) {
+    final List<GraphEdge> edges = this.edges;
+    final int[] page = parsePage(offset, limit, edges.size());
+    if (page == null) {
+      return;
+    }
+
+    final PrintWriter out = newStreamingWriter();
+    MessageCli.PAGE.printMessage(
+        "Edges",
+        String.valueOf(page[0]),
+        String.valueOf(page[1] - page[0]),
+        String.valueOf(edges.size()));
+    writeEdges(out, edges.subList(page[0], page[1]));
+    out.flush();
+  }
 
-    // Vertically print each edge between verticies.
+  /**
+   * Writes each vertex on its own line.
+   *
+   * @param out The writer to write to.
+   * @param verticies The verticies to write.
+   */
+  private void writeVerticies(final PrintWriter out, final List<GraphNode> verticies) {
+    for (final GraphNode node : verticies) {
+      out.print("\t" + node.getId() + System.lineSeparator());
+    }
+  }
+
+  /**
+   * Writes each edge between verticies on its own line.
+   *
+   * @param out The writer to write to.
+   * @param edges The edges to write.
+   */
+  private void writeEdges(final PrintWriter out, final List<GraphEdge> edges) {
     for (final GraphEdge edge : edges) {
+      out.print("\t" + edge.getNode1().getId() + " -> " + edge.getNode2().getId());
+      out.print(System.lineSeparator());
+    }
+  }
+
+  /**
+   * Creates a writer that streams to standard output through a fixed size buffer. It must be
+   * flushed, but not closed, once everything has been written.
+   *
+   * @return The writer.
+   */
+  private PrintWriter newStreamingWriter() {
+    return new PrintWriter(
+        new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), false);
+  }
+
+  /**
+   * Parses the offset and limit of a page, printing an error if either is not a whole number.
+   *
+   * @param offset The position of the first item, counting from 0.
+   * @param limit The largest number of items.
+   * @param size The number of items there are.
+   * @return The positions of the first item and after the last item, or null if the page is
+   *     invalid.
+   */
+  private int[] parsePage(final String offset, final String limit, final int size) {
+    final int start;
+    final int count;
+
+    try {
+      start = Integer.parseInt(offset);
+      count = Integer.parseInt(limit);
+    } catch (NumberFormatException e) {
+      MessageCli.INVALID_PAGE.printMessage(offset, limit);
+      return null;
+    }
+
+    if (start < 0 || count < 0) {
+      MessageCli.INVALID_PAGE.printMessage(offset, limit);
+      return null;
+    }
+
+    final int from = Math.min(start, size);
+    return new int[] {from, (int) Math.min((long) from + count, size)};
+  }
+
+  /**
+   * Prints the output of a command, reusing the output of the last time the command was run with
+   * the same arguments if the graph has not changed since.
+   *
+   * @param command The command being run.
+   * @param output Computes the output of the command.
+   * @param args The arguments of the command.
+   */
+  private void printCached(
+      final Command command, final Supplier<String> output, final String... args) {
+    // The version is read before the graph, so an output is never cached under a newer version
+    final String key = version + " " + command + " " + String.join(" ", args);
+    String result = results.get(key);
+
+    if (result == null) {
+      result = output.get();
+      results.put(key, result);
+    }
+
+    System.out.println(result);
+  }
+
+  /**
+   * Prints the set of verticies in the graph that are root verticies, which the graph keeps up to
+   * date itself unless it has a cycle.
+   */
+  public void printRoots() {
+    printCached(
+        Command.LIST_ROOT_VERTICIES,
+        () -> {
+          // A graph with a cycle finds its roots from the components of the snapshot
+          final Set<String> roots = maintained().roots;
+          return (roots != null ? roots : graph().getRoots()).toString();
+        });
+  }
+
+  /** Prints the strongly connected components of the graph, ordered by their minimum vertex. */
+  public void printStronglyConnectedComponents() {
+    System.out.println(graph().getStronglyConnectedComponents());
+  }
+
+  /** Prints the weakly connected components of the graph, ordered by their minimum vertex. */
+  public void printWeaklyConnectedComponents() {
+    System.out.println(graph().getWeaklyConnectedComponents());
+  }
+
+  /** Prints the size of the transitive closure, then the closure edges of each vertex. */
+  public void printTransitiveClosure() {
+    // Read both from one snapshot, in case the file is reloaded in between.
+    final GraphSnapshot<String> graph = graph();
+    printClosureSize(graph);
+
+    for (final Map.Entry<String, Set<String>> entry : graph.getTransitiveClosure().entrySet()) {
+      MessageCli.CLOSURE_ROW.printMessage(entry.getKey(), entry.getValue().toString());
+    }
+  }
+
+  /** Prints the number of edges in the transitive closure of the graph. */
+  public void printClosureSize() {
+    printClosureSize(graph());
+  }
+
+  /**
+   * Prints the number of edges in the transitive closure of a snapshot of the graph.
+   *
+   * @param graph The snapshot to read.
+   */
+  private void printClosureSize(final GraphSnapshot<String> graph) {
+    MessageCli.CLOSURE_SIZE.printMessage(String.valueOf(graph.getClosureEdgeCount()));
+  }
+
+  /**
+   * Prints the components of the graph and the edges between them. Each component is labelled by
+   * its minimum vertex.
+   */
+  public void printCondensation() {
+    // Read both from one snapshot, in case the file is reloaded in between.
+    final GraphSnapshot<String> graph = graph();
+    final Map<String, Set<String>> condensation = graph.getCondensation();
+    final StringBuilder sb = new StringBuilder("Components:").append(System.lineSeparator());
+
+    // Vertically print each component with its members.
+    for (final Set<String> component : graph.getStronglyConnectedComponents()) {
       sb.append("\t")
-          .append(edge.getNode1().getId())
-          .append(" -> ")
-          .append(edge.getNode2().getId())
+          .append(component.iterator().next())
+          .append(": ")
+          .append(component)
           .append(System.lineSeparator());
     }
 
+    sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
+
+    // Vertically print each edge between components.
+    for (final Map.Entry<String, Set<String>> entry : condensation.entrySet()) {
+      for (final String successor : entry.getValue()) {
+        sb.append("\t")
+            .append(entry.getKey())
+            .append(" -> ")
+            .append(successor)
+            .append(System.lineSeparator());
+      }
+    }
+
     System.out.print(sb.toString());
   }
 
-  /** Prints the set of verticies in the graph that are root verticies. */
-  public void printRoots() {
-    System.out.println(graph.getRoots());
+  /**
+   * Prints a topological order of the graph followed by its layers, or an error if the graph has a
+   * cycle.
+   */
+  public void printTopologicalSort() {
+    // Read both from one snapshot, in case the file is reloaded in between.
+    final GraphSnapshot<String> graph = graph();
+    if (!graph.isAcyclic()) {
+      MessageCli.GRAPH_CYCLIC.printMessage();
+      return;
+    }
+
+    final List<List<String>> layers = graph.getTopologicalLayers();
+    final List<String> order = new ArrayList<>();
+    for (final List<String> layer : layers) {
+      order.addAll(layer);
+    }
+
+    MessageCli.TOPOLOGICAL_ORDER.printMessage(order.toString());
+    for (int layer = 0; layer < layers.size(); layer++) {
+      MessageCli.TOPOLOGICAL_LAYER.printMessage(
+          String.valueOf(layer), layers.get(layer).toString());
+    }
+  }
+
+  /** Prints the size, maximum and mean degrees, and density of the graph. */
+  public void printDegreeStatistics() {
+    printDegreeStatistics(graph().getDegreeStatistics());
+  }
+
+  /**
+   * Prints the size, maximum and mean degrees, and density from the degree statistics of a graph.
+   *
+   * @param statistics The degree statistics to print.
+   */
+  private void printDegreeStatistics(final DegreeStatistics statistics) {
+    MessageCli.GRAPH_SIZE.printMessage(
+        String.valueOf(statistics.getVertexCount()),
+        String.valueOf(statistics.getEdgeCount()),
+        String.valueOf(statistics.getSelfLoopCount()),
+        String.valueOf(statistics.getIsolatedCount()));
+    MessageCli.GRAPH_DEGREES.printMessage(
+        String.valueOf(statistics.getMaxOutDegree()),
+        String.valueOf(statistics.getMaxInDegree()),
+        String.format(Locale.ROOT, "%.2f", statistics.getMeanDegree()),
+        String.format(Locale.ROOT, "%.4f", statistics.getDensity()));
+  }
+
+  /**
+   * Prints the degree statistics of the graph, followed by the number of verticies whose out-degree
+   * and in-degree fall in each power of two range.
+   */
+  public void printDegreeHistogram() {
+    final DegreeStatistics statistics = graph().getDegreeStatistics();
+    printDegreeStatistics(statistics);
+
+    for (int bucket = 0; bucket < statistics.bucketCount(); bucket++) {
+      final int start = DegreeStatistics.bucketStart(bucket);
+      final int end = DegreeStatistics.bucketEnd(bucket);
+      MessageCli.DEGREE_BUCKET.printMessage(
+          start == end ? String.valueOf(start) : start + "-" + end,
+          String.valueOf(statistics.outDegreeCount(bucket)),
+          String.valueOf(statistics.inDegreeCount(bucket)));
+    }
+  }
+
+  /**
+   * Prints the verticies with the highest PageRank.
+   *
+   * @param count The number of verticies to print.
+   */
+  public void printPageRank(final String count) {
+    final Integer k = parseCount(count);
+    if (k == null) {
+      return;
+    }
+
+    final GraphSnapshot<String> graph = graph();
+    final Map<String, Double> top = graph.getTopPageRank(k);
+    MessageCli.PAGERANK.printMessage(
+        String.valueOf(top.size()), String.valueOf(graph.getPageRank().iterations()));
+    printRanked(top, "%.6f");
+  }
+
+  /**
+   * Prints the verticies with the highest degree centrality.
+   *
+   * @param count The number of verticies to print.
+   */
+  public void printDegreeCentrality(final String count) {
+    final Integer k = parseCount(count);
+    if (k == null) {
+      return;
+    }
+
+    final Map<String, Double> top = graph().getTopDegreeCentrality(k);
+    MessageCli.DEGREE_CENTRALITY.printMessage(String.valueOf(top.size()));
+    printRanked(top, "%.4f");
+  }
+
+  /**
+   * Prints ranked verticies with their scores, one per line.
+   *
+   * @param ranked The verticies mapped to their scores, from the highest down.
+   * @param format The format of each score.
+   */
+  private void printRanked(final Map<String, Double> ranked, final String format) {
+    int rank = 1;
+    for (final Map.Entry<String, Double> entry : ranked.entrySet()) {
+      MessageCli.RANKED_VERTEX.printMessage(
+          String.valueOf(rank++),
+          entry.getKey(),
+          String.format(Locale.ROOT, format, entry.getValue()));
+    }
+  }
+
+  /**
+   * Parses how many verticies to print, printing an error if it is not a positive whole number.
+   *
+   * @param count The number to parse.
+   * @return The number, or null if it is invalid.
+   */
+  private Integer parseCount(final String count) {
+    try {
+      final int k = Integer.parseInt(count);
+      if (k > 0) {
+        return k;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below like any other invalid count.
+    }
+
+    MessageCli.INVALID_COUNT.printMessage(count);
+    return null;
+  }
+
+  /** Prints how many bytes the adjacency of the graph takes as plain rows and compressed. */
+  public void printAdjacencySize() {
+    printAdjacencySize(graph());
+  }
+
+  /**
+   * Prints how many bytes the adjacency of a snapshot of the graph takes as plain rows and
+   * compressed.
+   *
+   * @param graph The snapshot to read.
+   */
+  private void printAdjacencySize(final GraphSnapshot<String> graph) {
+    final CompressedAdjacency adjacency = graph.getCompressedAdjacency();
+    final long edgeCount = Math.max(1, adjacency.edgeCount());
+
+    MessageCli.ADJACENCY_SIZE.printMessage(
+        String.valueOf(adjacency.edgeCount()),
+        String.valueOf(adjacency.plainBytes()),
+        String.valueOf(adjacency.compressedBytes()),
+        String.format(Locale.ROOT, "%.2f", adjacency.compressedBytes() * 8.0 / edgeCount));
+  }
+
+  /**
+   * Prints how many bytes the compressed rows of the graph take when the verticies are relabelled
+   * in each ordering, after the size of the adjacency in the configured ordering.
+   */
+  public void printAdjacencyOrderings() {
+    final GraphSnapshot<String> graph = graph();
+    printAdjacencySize(graph);
+
+    for (final VertexOrdering ordering : VertexOrdering.values()) {
+      final CompressedAdjacency adjacency = graph.compressAdjacency(ordering);
+      MessageCli.ORDERING_SIZE.printMessage(
+          ordering.name(),
+          String.valueOf(adjacency.compressedBytes()),
+          String.format(
+              Locale.ROOT,
+              "%.2f",
+              adjacency.compressedBytes() * 8.0 / Math.max(1, adjacency.edgeCount())));
+    }
+  }
+
+  /** Prints if the graph has no cycles, followed by a cycle of the graph if it has one. */
+  public void printAcyclic() {
+    final List<String> cycle = graph().findCycle();
+    MessageCli.GRAPH_ACYCLIC.printMessage(prefixNot(cycle.isEmpty()));
+
+    if (!cycle.isEmpty()) {
+      // Close the cycle by returning to the vertex it started from
+      MessageCli.GRAPH_CYCLE.printMessage(String.join(" -> ", cycle) + " -> " + cycle.get(0));
+    }
   }
 
   /** Prints if the set of verticies in the graph exhibit the reflexivity property. */
   public void printReflexitivity() {
-    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(graph.isReflexive()));
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(maintained().reflexive));
   }
 
   /** Prints if the set of edges in the graph exhibit the symmetric property. */
   public void printSymmetry() {
-    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(graph.isSymmetric()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(maintained().symmetric));
   }
 
   /** Prints if the set of edges in the graph exhibit transitivity. */
   public void printTransitivity() {
-    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(graph.isTransitive()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(graph().isTransitive()));
   }
 
   /** Prints if the set of edges in the graph exhibit anti-symmetry. */
   public void printAntiSymmetry() {
-    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(graph.isAntiSymmetric()));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(maintained().antiSymmetric));
   }
 
   /** Prints if the entire graph is considered an equivalence relation. */
   public void printEquivalence() {
-    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph.isEquivalence()));
+    // Transitivity needs the snapshot, which checks the cheaper properties first from its counts
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph().isEquivalence()));
+  }
+
+  /** Prints every relation property of the graph, evaluated together in one pass. */
+  public void printAllProperties() {
+    final RelationProperties properties = graph().getRelationProperties();
+
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(properties.isReflexive()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(properties.isSymmetric()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(properties.isTransitive()));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(properties.isAntiSymmetric()));
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(properties.isEquivalence()));
   }
 
   /**
@@ -122,29 +841,279 @@ public class GraphCalculator {
    * @param vertex The vertex to compute the equivalence class of.
    */
   public void printEquivalenceClass(final String vertex) {
-    final Object[] equivalenceClass = graph.getEquivalenceClass(vertex).toArray();
-    Arrays.sort(equivalenceClass);
-    System.out.println(Arrays.toString(equivalenceClass));
+    printCached(
+        Command.COMPUTE_EQUIVALENCE,
+        () -> {
+          final Object[] equivalenceClass = graph().getEquivalenceClass(vertex).toArray();
+          Arrays.sort(equivalenceClass);
+          return Arrays.toString(equivalenceClass);
+        },
+        vertex);
+  }
+
+  /**
+   * Prints if there is a path from one vertex to another.
+   *
+   * @param source The vertex the path leaves from.
+   * @param destination The vertex the path arrives at.
+   */
+  public void printReachable(final String source, final String destination) {
+    final GraphSnapshot<String> graph = graph();
+    if (!checkVertex(graph, source) || !checkVertex(graph, destination)) {
+      return;
+    }
+
+    final boolean isReachable = graph.isReachable(source, destination);
+    MessageCli.VERTEX_REACHABLE.printMessage(destination, prefixNot(isReachable), source);
+  }
+
+  /**
+   * Prints the path with the fewest edges from one vertex to another.
+   *
+   * @param source The vertex the path leaves from.
+   * @param destination The vertex the path arrives at.
+   */
+  public void printShortestPath(final String source, final String destination) {
+    final GraphSnapshot<String> graph = graph();
+    if (!checkVertex(graph, source) || !checkVertex(graph, destination)) {
+      return;
+    }
+
+    final List<String> path = graph.getShortestPath(source, destination);
+
+    if (path.isEmpty()) {
+      MessageCli.NO_PATH.printMessage(source, destination);
+      return;
+    }
+
+    MessageCli.SHORTEST_PATH.printMessage(
+        source, destination, String.valueOf(path.size() - 1), path.toString());
+  }
+
+  /**
+   * Prints the fewest edges from each of the given verticies to each vertex it can reach.
+   *
+   * @param sources The comma-separated verticies the paths leave from.
+   */
+  public void printHopDistances(final String sources) {
+    final GraphSnapshot<String> graph = graph();
+    final List<String> sourceList = parseSources(graph, sources);
+
+    if (sourceList != null) {
+      printHopDistances(graph, sourceList);
+    }
+  }
+
+  /**
+   * Prints every vertex reachable from any of the given vertices, in numerical order.
+   *
+   * @param sources The comma-separated vertices to search from.
+   */
+  public void printReachableFrom(final String sources) {
+    final GraphSnapshot<String> graph = graph();
+    final List<String> sourceList = parseSources(graph, sources);
+    if (sourceList == null) {
+      return;
+    }
+
+    final List<String> reachable = graph.getReachableFrom(sourceList);
+    MessageCli.REACHABLE_SET.printMessage(
+        String.valueOf(reachable.size()), sourceList.toString(), reachable.toString());
+  }
+
+  /**
+   * Splits a comma-separated list of vertices, printing an error if any is not in the graph.
+   *
+   * @param graph The snapshot to look the vertices up in.
+   * @param sources The comma-separated vertices.
+   * @return The vertices in the given order, or null if one is not in the graph.
+   */
+  private List<String> parseSources(final GraphSnapshot<String> graph, final String sources) {
+    final List<String> sourceList = new ArrayList<>();
+
+    for (final String source : sources.split(",")) {
+      if (!checkVertex(graph, source.trim())) {
+        return null;
+      }
+      sourceList.add(source.trim());
+    }
+    return sourceList;
+  }
+
+  /** Prints the fewest edges from each root vertex to each vertex it can reach. */
+  public void printRootHopDistances() {
+    final GraphSnapshot<String> graph = graph();
+    printHopDistances(graph, new ArrayList<>(graph.getRoots()));
+  }
+
+  /**
+   * Prints the fewest edges from each source to each vertex it can reach, one source per line.
+   *
+   * @param graph The snapshot to search.
+   * @param sources The verticies the paths leave from.
+   */
+  private void printHopDistances(final GraphSnapshot<String> graph, final List<String> sources) {
+    for (final Map.Entry<String, Map<String, Integer>> entry :
+        graph.getHopDistances(sources).entrySet()) {
+      MessageCli.HOP_DISTANCES.printMessage(entry.getKey(), entry.getValue().toString());
+    }
+  }
+
+  /**
+   * Prints the shortest weighted distance from a vertex to each vertex it can reach.
+   *
+   * @param source The vertex the paths leave from.
+   */
+  public void printShortestDistances(final String source) {
+    final GraphSnapshot<String> graph = graph();
+    if (!checkVertex(graph, source) || !checkNonNegativeWeights(graph)) {
+      return;
+    }
+
+    System.out.println(graph.getShortestDistances(source));
+  }
+
+  /**
+   * Prints the shortest weighted path from one vertex to another and its total weight.
+   *
+   * @param source The vertex the path leaves from.
+   * @param destination The vertex the path arrives at.
+   */
+  public void printShortestWeightedPath(final String source, final String destination) {
+    final GraphSnapshot<String> graph = graph();
+    if (!checkVertex(graph, source)
+        || !checkVertex(graph, destination)
+        || !checkNonNegativeWeights(graph)) {
+      return;
+    }
+
+    final List<String> path = graph.getShortestWeightedPath(source, destination);
+
+    if (path.isEmpty()) {
+      MessageCli.NO_PATH.printMessage(source, destination);
+      return;
+    }
+
+    // Sum the weights in path order, which is the order Dijkstra's algorithm added them.
+    double weight = 0;
+    for (int i = 1; i < path.size(); i++) {
+      weight += graph.getWeight(path.get(i - 1), path.get(i));
+    }
+
+    MessageCli.WEIGHTED_PATH.printMessage(
+        source, destination, String.valueOf(weight), path.toString());
   }
 
   /** Prints the search order of an iterative breadth first search. */
   public void printIterativeBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
+    printCached(
+        Command.GRAPH_SEARCH_IBFS,
+        () -> Arrays.toString(graph().iterativeBreadthFirstSearch().toArray()));
   }
 
   /** Prints the search order of an iterative depth first search. */
   public void printDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+    printCached(
+        Command.GRAPH_SEARCH_IDFS,
+        () -> Arrays.toString(graph().iterativeDepthFirstSearch().toArray()));
   }
 
   /** Prints the search order of a recursive breadth first search. */
   public void printRecursiveBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
+    printCached(
+        Command.GRAPH_SEARCH_RBFS,
+        () -> Arrays.toString(graph().recursiveBreadthFirstSearch().toArray()));
   }
 
   /** Prints the search order of a recursive depth first search. */
   public void printRecursiveDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
+    printCached(
+        Command.GRAPH_SEARCH_RDFS,
+        () -> Arrays.toString(graph().recursiveDepthFirstSearch().toArray()));
+  }
+
+  /** Prints the search order of a breadth first search over components in parallel. */
+  public void printParallelBreadthFirstSearch() {
+    printCached(
+        Command.GRAPH_SEARCH_PBFS,
+        () -> Arrays.toString(graph().parallelBreadthFirstSearch().toArray()));
+  }
+
+  /** Prints the search order of a depth first search over components in parallel. */
+  public void printParallelDepthFirstSearch() {
+    printCached(
+        Command.GRAPH_SEARCH_PDFS,
+        () -> Arrays.toString(graph().parallelDepthFirstSearch().toArray()));
+  }
+
+  /**
+   * Checks that the given vertex is in the graph, printing an error if it is not.
+   *
+   * @param graph The snapshot to look the vertex up in.
+   * @param vertex The vertex to check.
+   * @return If the vertex is in the graph.
+   */
+  private boolean checkVertex(final GraphSnapshot<String> graph, final String vertex) {
+    if (graph.containsVertex(vertex)) {
+      return true;
+    }
+
+    MessageCli.VERTEX_NOT_FOUND.printMessage(vertex);
+    return false;
+  }
+
+  /**
+   * Checks that no edge weight is negative, printing an error if there is one.
+   *
+   * @param graph The snapshot to check.
+   * @return If every edge weight is non-negative.
+   */
+  private boolean checkNonNegativeWeights(final GraphSnapshot<String> graph) {
+    if (!graph.hasNegativeWeights()) {
+      return true;
+    }
+
+    MessageCli.NEGATIVE_WEIGHTS.printMessage();
+    return false;
+  }
+
+  /**
+   * Checks that every edge has a weight that can be read, before any of them are used.
+   *
+   * @param edges The edges parsed from the file.
+   * @throws IllegalArgumentException If an edge has a weight that is not a finite number.
+   */
+  private void checkWeights(final Collection<GraphEdge> edges) {
+    for (final GraphEdge edge : edges) {
+      parseWeight(edge);
+    }
+  }
+
+  /**
+   * Reads the weight attribute of an edge in the file.
+   *
+   * @param edge The edge to read the weight of.
+   * @return The weight of the edge, or the default weight if it has no weight attribute.
+   * @throws IllegalArgumentException If the weight is not a finite number, with the weight as its
+   *     message.
+   */
+  private double parseWeight(final GraphEdge edge) {
+    final Object attribute = edge.getAttribute(WEIGHT_ATTRIBUTE);
+    if (attribute == null) {
+      return Edge.DEFAULT_WEIGHT;
+    }
+
+    // Infinite and NaN weights would break every sum and comparison of path lengths
+    final String text = attribute.toString();
+    try {
+      final double weight = Double.parseDouble(text);
+      if (Double.isFinite(weight)) {
+        return weight;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below, like a weight that parses but is not finite
+    }
+    throw new IllegalArgumentException(text);
   }
 
   /**
@@ -156,4 +1125,40 @@ public class GraphCalculator {
   private String prefixNot(final boolean isPropertyTrue) {
     return isPropertyTrue ? "" : "NOT ";
   }
+
+  /**
+   * The relation properties and root verticies of one version of the graph, copied out of it so
+   * that any number of sessions can read them at once.
+   */
+  private static final class MaintainedState {
+    private final boolean reflexive;
+    private final boolean symmetric;
+    private final boolean antiSymmetric;
+    // Null when the graph has a cycle, as its roots then come from the components of a snapshot
+    private final Set<String> roots;
+
+    /**
+     * Copies the state a graph keeps up to date as it changes.
+     *
+     * @param graph The graph to copy from.
+     */
+    private MaintainedState(final Graph<String> graph) {
+      reflexive = graph.isReflexive();
+      symmetric = graph.isSymmetric();
+      antiSymmetric = graph.isAntiSymmetric();
+      roots = graph.hasMaintainedRoots() ? Collections.unmodifiableSet(graph.getRoots()) : null;
+    }
+
+    /**
+     * Copies the relation properties a snapshot counted when it was built.
+     *
+     * @param graph The snapshot to copy from.
+     */
+    private MaintainedState(final GraphSnapshot<String> graph) {
+      reflexive = graph.isReflexive();
+      symmetric = graph.isSymmetric();
+      antiSymmetric = graph.isAntiSymmetric();
+      roots = null;
+    }
+  }
 }
@@ -1,7 +1,11 @@
 package nz.ac.auckland.se281;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentMap;
+import nz.ac.auckland.se281.server.QueryServer;
 
 /**
  * The entry point of the graph calculator command line interface.
@@ -11,7 +15,25 @@ import java.util.Scanner;
 public class Main {
   private static final String COMMAND_PREFIX = "graph-calculator> ";
 
-  public static void main(final String[] args) {
+  private static final String SERVER_OPTION = "--server";
+
+  private static final int DEFAULT_PORT = 2810;
+
+  /**
+   * Starts the command line interface, or with {@code --server [PORT]} a query server on the
+   * loopback interface that keeps running until the process is stopped.
+   *
+   * @param args The command line arguments.
+   * @throws IOException If the server cannot listen on the port.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length > 0 && args[0].equals(SERVER_OPTION)) {
+      final int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+      final QueryServer server = new QueryServer(port);
+      MessageCli.SERVER_STARTED.printMessage(String.valueOf(server.getPort()));
+      return;
+    }
+
     new Main(new Scanner(System.in)).start();
   }
 
@@ -44,6 +66,8 @@ public class Main {
 
   private final Scanner scanner;
 
+  private final ConcurrentMap<String, GraphCalculator> openGraphs;
+
   private GraphCalculator calculator;
 
   /**
@@ -52,7 +76,19 @@ public class Main {
    * @param scanner The scanner to read user input from.
    */
   public Main(final Scanner scanner) {
+    this(scanner, null);
+  }
+
+  /**
+   * Create a new command line interface that shares the files it opens with other sessions.
+   *
+   * @param scanner The scanner to read user input from.
+   * @param openGraphs The calculators of the files already opened, by file name, or null to parse a
+   *     file every time it is opened.
+   */
+  public Main(final Scanner scanner, final ConcurrentMap<String, GraphCalculator> openGraphs) {
     this.scanner = scanner;
+    this.openGraphs = openGraphs;
   }
 
   /** Process commands from the user for the graph calculator command line interface. */
@@ -117,21 +153,79 @@ public class Main {
         final String filename = args[1];
 
         try {
-          calculator = new GraphCalculator(filename);
+          final GraphCalculator opened = openFile(filename);
+          closeCalculator();
+          calculator = opened;
           MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(filename);
         } catch (FileNotFoundException e) {
           MessageCli.FILE_NOT_FOUND.printMessage(filename);
+        } catch (IllegalArgumentException e) {
+          MessageCli.INVALID_WEIGHT.printMessage(filename, e.getMessage());
         }
         break;
       case INFO:
         calculator.printInfo();
         break;
+      case WATCH_FILE:
+        // A shared calculator has no single owner to stop its watcher, and a reload would change
+        // the graph under every other session
+        if (openGraphs != null) {
+          calculator.printWatchShared();
+        } else {
+          calculator.printWatch();
+        }
+        break;
       case LIST_VERTICIES_EDGES:
         calculator.printVerticiesEdges();
         break;
+      case LIST_VERTICIES:
+        calculator.printVerticiesPage(args[1], args[2]);
+        break;
+      case LIST_EDGES:
+        calculator.printEdgesPage(args[1], args[2]);
+        break;
       case LIST_ROOT_VERTICIES:
         calculator.printRoots();
         break;
+      case LIST_SCCS:
+        calculator.printStronglyConnectedComponents();
+        break;
+      case LIST_CONDENSATION:
+        calculator.printCondensation();
+        break;
+      case LIST_WCCS:
+        calculator.printWeaklyConnectedComponents();
+        break;
+      case TRANSITIVE_CLOSURE:
+        calculator.printTransitiveClosure();
+        break;
+      case CLOSURE_SIZE:
+        calculator.printClosureSize();
+        break;
+      case CHECK_ACYCLIC:
+        calculator.printAcyclic();
+        break;
+      case TOPOLOGICAL_SORT:
+        calculator.printTopologicalSort();
+        break;
+      case DEGREE_STATS:
+        calculator.printDegreeStatistics();
+        break;
+      case DEGREE_HISTOGRAM:
+        calculator.printDegreeHistogram();
+        break;
+      case PAGERANK:
+        calculator.printPageRank(args[1]);
+        break;
+      case DEGREE_CENTRALITY:
+        calculator.printDegreeCentrality(args[1]);
+        break;
+      case ADJACENCY_SIZE:
+        calculator.printAdjacencySize();
+        break;
+      case ADJACENCY_ORDERINGS:
+        calculator.printAdjacencyOrderings();
+        break;
       case CHECK_REFLEXIVITY:
         calculator.printReflexitivity();
         break;
@@ -147,9 +241,33 @@ public class Main {
       case CHECK_EQUIVALENCE:
         calculator.printEquivalence();
         break;
+      case CHECK_ALL:
+        calculator.printAllProperties();
+        break;
       case COMPUTE_EQUIVALENCE:
         calculator.printEquivalenceClass(args[1]);
         break;
+      case REACHABLE:
+        calculator.printReachable(args[1], args[2]);
+        break;
+      case SHORTEST_PATH:
+        calculator.printShortestPath(args[1], args[2]);
+        break;
+      case HOP_DISTANCES:
+        calculator.printHopDistances(args[1]);
+        break;
+      case ROOT_HOP_DISTANCES:
+        calculator.printRootHopDistances();
+        break;
+      case REACHABLE_FROM:
+        calculator.printReachableFrom(args[1]);
+        break;
+      case DIJKSTRA_DISTANCES:
+        calculator.printShortestDistances(args[1]);
+        break;
+      case DIJKSTRA_PATH:
+        calculator.printShortestWeightedPath(args[1], args[2]);
+        break;
       case GRAPH_SEARCH_IBFS:
         calculator.printIterativeBreadthFirstSearch();
         break;
@@ -162,7 +280,14 @@ public class Main {
       case GRAPH_SEARCH_RDFS:
         calculator.printRecursiveDepthFirstSearch();
         break;
+      case GRAPH_SEARCH_PBFS:
+        calculator.printParallelBreadthFirstSearch();
+        break;
+      case GRAPH_SEARCH_PDFS:
+        calculator.printParallelDepthFirstSearch();
+        break;
       case EXIT:
+        closeCalculator();
         MessageCli.END.printMessage();
 
         // Signal that the program should exit.
@@ -176,6 +301,51 @@ public class Main {
     return true;
   }
 
+  /**
+   * Opens a file, reusing the calculator of another session if the file is already open.
+   *
+   * @param filename The name of the test case to open.
+   * @return The calculator for the file.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If an edge of the file has a weight that is not a number.
+   */
+  private GraphCalculator openFile(final String filename) throws FileNotFoundException {
+    if (openGraphs == null) {
+      return new GraphCalculator(filename);
+    }
+
+    try {
+      // Sessions that open the same file at once wait for a single parse
+      return openGraphs.computeIfAbsent(
+          filename,
+          name -> {
+            try {
+              return new GraphCalculator(name);
+            } catch (FileNotFoundException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw (FileNotFoundException) e.getCause();
+    }
+  }
+
+  /**
+   * Stops watching the file of the current calculator. Shared calculators are never watched, as
+   * WATCH_FILE is refused in server mode, so there is nothing to stop for them.
+   */
+  private void closeCalculator() {
+    if (calculator == null || openGraphs != null) {
+      return;
+    }
+
+    try {
+      calculator.stopWatching();
+    } catch (IOException e) {
+      // The watcher thread is a daemon, so it cannot keep the program running.
+    }
+  }
+
   /**
    * Check that the correct number of arguments were provided for the command.
    *
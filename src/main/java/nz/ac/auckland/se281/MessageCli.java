@@ -15,13 +15,48 @@ public enum MessageCli {
   OPENED_FILE_SUCCESSFULLY("Successfully opened graph from file %s"),
   FILE_NOT_OPEN("Error: no valid file open"),
   FILE_NOT_FOUND("Error: file '%s' not found in `testcases` folder"),
+  INVALID_WEIGHT("Error: file '%s' has an edge weight '%s' that is not a finite number"),
   INFO("File name: %s"),
+  WATCHING_FILE("Watching file %s for changes"),
+  ALREADY_WATCHING("File %s is already being watched"),
+  WATCH_FAILED("Error: file %s cannot be watched"),
+  WATCH_SHARED("Error: file %s is shared with other sessions, so it cannot be watched"),
+  PAGE("%s from position %s (%s of %s):"),
+  INVALID_PAGE("Error: offset '%s' and limit '%s' must be whole numbers that are not negative"),
+  VERTEX_NOT_FOUND("Error: vertex '%s' not found in the graph"),
 
   GRAPH_REFLEXIVE("The graph is %sreflexive"),
   GRAPH_SYMMETRIC("The graph is %ssymmetric"),
   GRAPH_ANTI_SYMMETRIC("The graph is %santisymmetric"),
   GRAPH_EQUIVALENCE("The graph is %san equivalence relation"),
   GRAPH_TRANSITIVE("The graph is %stransitive"),
+  GRAPH_ACYCLIC("The graph is %sacyclic"),
+  GRAPH_CYCLE("\tCycle: %s"),
+  VERTEX_REACHABLE("Vertex %s is %sreachable from vertex %s"),
+  SHORTEST_PATH("Shortest path from vertex %s to vertex %s has %s edges: %s"),
+  WEIGHTED_PATH("Shortest path from vertex %s to vertex %s has weight %s: %s"),
+  HOP_DISTANCES("\tFrom vertex %s: %s"),
+  REACHABLE_SET("%s vertices are reachable from %s: %s"),
+  NO_PATH("There is no path from vertex %s to vertex %s"),
+  NEGATIVE_WEIGHTS("Error: shortest paths need non-negative edge weights"),
+  GRAPH_CYCLIC("Error: the graph has a cycle, so it has no topological order"),
+  TOPOLOGICAL_ORDER("Topological order: %s"),
+  TOPOLOGICAL_LAYER("\tLayer %s: %s"),
+  CLOSURE_SIZE("The transitive closure has %s edges"),
+  CLOSURE_ROW("\t%s -> %s"),
+  GRAPH_SIZE("The graph has %s vertices, %s edges, %s self-loops and %s isolated vertices"),
+  GRAPH_DEGREES("Maximum out-degree %s, maximum in-degree %s, mean degree %s, density %s"),
+  DEGREE_BUCKET("\tDegree %s: %s by out-degree, %s by in-degree"),
+  PAGERANK("Top %s vertices by PageRank after %s iterations:"),
+  DEGREE_CENTRALITY("Top %s vertices by degree centrality:"),
+  RANKED_VERTEX("\t%s. Vertex %s: %s"),
+  INVALID_COUNT("Error: count '%s' must be a whole number greater than 0"),
+  ADJACENCY_SIZE(
+      "The adjacency of %s edges takes %s bytes as plain rows and %s bytes compressed, %s bits per"
+          + " edge"),
+  ORDERING_SIZE("\t%s ordering: %s bytes compressed, %s bits per edge"),
+
+  SERVER_STARTED("Graph calculator server listening on port %s"),
 
   END("You closed the terminal. Goodbye.");
 
@@ -0,0 +1,69 @@
+package nz.ac.auckland.se281;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the output of commands, which evicts the least recently used output once it
+ * holds too many outputs or too many characters. Outputs longer than the whole character budget are
+ * never stored. The cache can be shared by several sessions, so every method is synchronized.
+ */
+public class ResultCache {
+  private final int maxEntries;
+
+  private final long maxChars;
+
+  // Iterates from the least to the most recently used output
+  private final LinkedHashMap<String, String> outputs = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long chars;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param maxEntries The most outputs to keep.
+   * @param maxChars The most characters to keep across every output.
+   */
+  public ResultCache(final int maxEntries, final long maxChars) {
+    this.maxEntries = maxEntries;
+    this.maxChars = maxChars;
+  }
+
+  /**
+   * Gets the output stored for a key, marking it as the most recently used.
+   *
+   * @param key The key of the output.
+   * @return The output, or null if it is not stored.
+   */
+  public synchronized String get(final String key) {
+    return outputs.get(key);
+  }
+
+  /**
+   * Stores the output for a key, evicting the least recently used outputs until it fits.
+   *
+   * @param key The key of the output.
+   * @param output The output to store.
+   */
+  public synchronized void put(final String key, final String output) {
+    if (output.length() > maxChars) {
+      return;
+    }
+
+    final String previous = outputs.put(key, output);
+    chars += output.length() - (previous == null ? 0 : previous.length());
+
+    final Iterator<Map.Entry<String, String>> eldest = outputs.entrySet().iterator();
+    while (outputs.size() > maxEntries || chars > maxChars) {
+      chars -= eldest.next().getValue().length();
+      eldest.remove();
+    }
+  }
+
+  /** Removes every output. */
+  public synchronized void clear() {
+    outputs.clear();
+    chars = 0;
+  }
+}
@@ -0,0 +1,170 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Point to point breadth first search that grows one frontier forwards from the source and one
+ * backwards from the destination along the reverse edges, always expanding whichever frontier is
+ * smaller by one whole level. The search stops as soon as the two frontiers meet, so on large
+ * graphs it only explores the edges near the two endpoints rather than everything reachable from
+ * the source.
+ */
+public class BidirectionalSearch {
+  // Parents are stored plus one, so the zero that new arrays start with means unvisited
+  private static final int UNVISITED = 0;
+
+  private final GraphIndex<?> index;
+  private final int[] forwardParent;
+  private final int[] backwardParent;
+  private final int[] forwardDepth;
+  private final int[] backwardDepth;
+  private int[] forwardFrontier;
+  private int[] backwardFrontier;
+  private int forwardSize;
+  private int backwardSize;
+  private int meeting = -1;
+
+  /**
+   * Searches for a shortest path, by number of edges, from a source to a destination.
+   *
+   * @param index index of the graph
+   * @param source id of the vertex the path leaves from
+   * @param destination id of the vertex the path arrives at
+   */
+  public BidirectionalSearch(GraphIndex<?> index, int source, int destination) {
+    this.index = index;
+    int vertexCount = index.vertexCount();
+    forwardParent = new int[vertexCount];
+    backwardParent = new int[vertexCount];
+    forwardDepth = new int[vertexCount];
+    backwardDepth = new int[vertexCount];
+    forwardFrontier = new int[] {source};
+    backwardFrontier = new int[] {destination};
+    forwardSize = 1;
+    backwardSize = 1;
+
+    // A vertex is its own parent at the start of each search
+    forwardParent[source] = source + 1;
+    backwardParent[destination] = destination + 1;
+    if (source == destination) {
+      meeting = source;
+      return;
+    }
+
+    while (meeting == -1 && forwardSize > 0 && backwardSize > 0) {
+      if (forwardSize <= backwardSize) {
+        expandForward();
+      } else {
+        expandBackward();
+      }
+    }
+  }
+
+  /**
+   * Helper method that visits every unvisited destination of the forward frontier. If the frontiers
+   * meet, the meeting vertex with the shortest total path is kept.
+   */
+  private void expandForward() {
+    int[] next = new int[Math.max(16, forwardSize)];
+    int nextSize = 0;
+    int best = Integer.MAX_VALUE;
+
+    for (int i = 0; i < forwardSize; i++) {
+      int vertex = forwardFrontier[i];
+      for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+        int neighbour = index.target(edge);
+        if (forwardParent[neighbour] != UNVISITED) {
+          continue;
+        }
+        forwardParent[neighbour] = vertex + 1;
+        forwardDepth[neighbour] = forwardDepth[vertex] + 1;
+        if (nextSize == next.length) {
+          next = Arrays.copyOf(next, nextSize * 2);
+        }
+        next[nextSize++] = neighbour;
+
+        if (backwardParent[neighbour] != UNVISITED) {
+          int length = forwardDepth[neighbour] + backwardDepth[neighbour];
+          if (length < best) {
+            best = length;
+            meeting = neighbour;
+          }
+        }
+      }
+    }
+    forwardFrontier = next;
+    forwardSize = nextSize;
+  }
+
+  /**
+   * Helper method that visits every unvisited source of the backward frontier. If the frontiers
+   * meet, the meeting vertex with the shortest total path is kept.
+   */
+  private void expandBackward() {
+    int[] next = new int[Math.max(16, backwardSize)];
+    int nextSize = 0;
+    int best = Integer.MAX_VALUE;
+
+    for (int i = 0; i < backwardSize; i++) {
+      int vertex = backwardFrontier[i];
+      for (int edge = index.reverseStart(vertex); edge < index.reverseEnd(vertex); edge++) {
+        int neighbour = index.source(edge);
+        if (backwardParent[neighbour] != UNVISITED) {
+          continue;
+        }
+        backwardParent[neighbour] = vertex + 1;
+        backwardDepth[neighbour] = backwardDepth[vertex] + 1;
+        if (nextSize == next.length) {
+          next = Arrays.copyOf(next, nextSize * 2);
+        }
+        next[nextSize++] = neighbour;
+
+        if (forwardParent[neighbour] != UNVISITED) {
+          int length = forwardDepth[neighbour] + backwardDepth[neighbour];
+          if (length < best) {
+            best = length;
+            meeting = neighbour;
+          }
+        }
+      }
+    }
+    backwardFrontier = next;
+    backwardSize = nextSize;
+  }
+
+  /**
+   * Checks if a path was found.
+   *
+   * @return true if the destination is reachable from the source, false otherwise
+   */
+  public boolean isReachable() {
+    return meeting != -1;
+  }
+
+  /**
+   * Gets the verticies along the shortest path, joining the forward path to the meeting vertex with
+   * the backward path from it.
+   *
+   * @return ids of the verticies from the source to the destination, empty if there is no path
+   */
+  public int[] path() {
+    if (meeting == -1) {
+      return new int[0];
+    }
+
+    int[] path = new int[forwardDepth[meeting] + backwardDepth[meeting] + 1];
+    int position = forwardDepth[meeting];
+    for (int vertex = meeting; position >= 0; vertex = forwardParent[vertex] - 1) {
+      path[position--] = vertex;
+    }
+    position = forwardDepth[meeting];
+    for (int vertex = meeting; position < path.length; vertex = backwardParent[vertex] - 1) {
+      path[position++] = vertex;
+    }
+    return path;
+  }
+}
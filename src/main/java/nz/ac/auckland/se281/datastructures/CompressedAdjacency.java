@@ -0,0 +1,351 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The forward adjacency of a graph with each row of sorted destinations stored as gaps in one byte
+ * array. The first destination of a row is stored as its zigzag-encoded difference from the source
+ * vertex, and every later destination as one less than its gap from the one before, which is never
+ * negative because a row has no repeated destinations. Each number is a variable-length integer of
+ * 7 bits per byte, with the top bit set on every byte but the last, so the small gaps of sparse
+ * graphs take a byte or two instead of the 4 bytes of a plain row.
+ *
+ * <p>The rows can be relabelled by a {@link VertexOrdering}, which gives connected verticies nearby
+ * labels so that the gaps are smaller and a traversal of these rows reads nearby ones. Rows are
+ * then numbered by label and list the labels of their neighbours, and {@link #label(int)} and
+ * {@link #vertex(int)} convert between labels and the ids of the index, so results can be reported
+ * in id order. The index itself is never relabelled.
+ *
+ * <p>Rows can only be read from the start, so this suits traversals that only need the neighbours
+ * of each vertex, rather than algorithms that need the position of an edge. The byte array and row
+ * offsets are kept in the {@link GraphStorage} of the index they are built from.
+ */
+public class CompressedAdjacency {
+  // Number of rows encoded by each parallel task
+  private static final int RANGE_SIZE = 4096;
+
+  private final GraphStorage storage;
+  private final VertexOrdering ordering;
+  private final int edgeCount;
+  // Id of the vertex with each label and label of each vertex id, or null if not relabelled
+  private final IntBuffer verticies;
+  private final IntBuffer labels;
+  private final IntBuffer offsets;
+  private final ByteBuffer bytes;
+
+  /**
+   * Compresses the forward rows of an indexed graph, keeping the ids of the index as labels.
+   *
+   * @param index primitive index of the graph
+   */
+  public CompressedAdjacency(GraphIndex<?> index) {
+    this(index, VertexOrdering.NONE);
+  }
+
+  /**
+   * Compresses the forward rows of an indexed graph after relabelling its verticies, sizing then
+   * encoding ranges of rows in parallel.
+   *
+   * @param index primitive index of the graph
+   * @param ordering order to label the verticies in
+   */
+  public CompressedAdjacency(GraphIndex<?> index, VertexOrdering ordering) {
+    storage = index.getStorage();
+    this.ordering = ordering;
+    edgeCount = index.edgeCount();
+    int vertexCount = index.vertexCount();
+    int rangeCount = (vertexCount + RANGE_SIZE - 1) / RANGE_SIZE;
+
+    int[] sequence = null;
+    int[] labelOf = null;
+    if (ordering != VertexOrdering.NONE) {
+      sequence = ordering.sequence(index);
+      labelOf = new int[vertexCount];
+      for (int label = 0; label < vertexCount; label++) {
+        labelOf[sequence[label]] = label;
+      }
+    }
+    verticies = sequence == null ? null : storage.storeInts(sequence);
+    labels = labelOf == null ? null : storage.storeInts(labelOf);
+    final int[] rowVerticies = sequence;
+    final int[] rowLabels = labelOf;
+
+    // Size every row, then prefix sum the sizes into byte offsets
+    int[] rowOffsets = new int[vertexCount + 1];
+    IntStream.range(0, rangeCount)
+        .parallel()
+        .forEach(
+            range -> {
+              int to = Math.min(vertexCount, (range + 1) * RANGE_SIZE);
+              Row row = new Row(index, rowVerticies, rowLabels);
+              for (int label = range * RANGE_SIZE; label < to; label++) {
+                rowOffsets[label + 1] = row.encode(label, null, 0);
+              }
+            });
+    long total = 0;
+    for (int label = 0; label < vertexCount; label++) {
+      total += rowOffsets[label + 1];
+      if (total > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            "Graph is too large for one buffer: " + total + " bytes");
+      }
+      rowOffsets[label + 1] = (int) total;
+    }
+
+    // Rows are written at their own offsets, so ranges can be encoded at once
+    offsets = storage.storeInts(rowOffsets);
+    bytes = storage.allocateBytes((int) total);
+    IntStream.range(0, rangeCount)
+        .parallel()
+        .forEach(
+            range -> {
+              int to = Math.min(vertexCount, (range + 1) * RANGE_SIZE);
+              Row row = new Row(index, rowVerticies, rowLabels);
+              for (int label = range * RANGE_SIZE; label < to; label++) {
+                row.encode(label, bytes, rowOffsets[label]);
+              }
+            });
+  }
+
+  /** Encoder of the rows of one range, with room to sort the relabelled neighbours of a row. */
+  private static class Row {
+    private final GraphIndex<?> index;
+    private final int[] verticies;
+    private final int[] labels;
+    private int[] neighbours = new int[16];
+
+    /**
+     * Creates an encoder.
+     *
+     * @param index primitive index of the graph
+     * @param verticies id of the vertex with each label, or null if not relabelled
+     * @param labels label of each vertex id, or null if not relabelled
+     */
+    private Row(GraphIndex<?> index, int[] verticies, int[] labels) {
+      this.index = index;
+      this.verticies = verticies;
+      this.labels = labels;
+    }
+
+    /**
+     * Encodes the row of a label, or only measures it if there is no buffer.
+     *
+     * @param label label of the source vertex
+     * @param out buffer to write the row to, or null to only count its bytes
+     * @param position position of the first byte of the row in the buffer
+     * @return number of bytes in the row
+     */
+    private int encode(int label, ByteBuffer out, int position) {
+      int vertex = verticies == null ? label : verticies[label];
+      int start = index.start(vertex);
+      int degree = index.end(vertex) - start;
+      if (neighbours.length < degree) {
+        neighbours = new int[Math.max(degree, neighbours.length * 2)];
+      }
+      for (int edge = 0; edge < degree; edge++) {
+        int target = index.target(start + edge);
+        neighbours[edge] = labels == null ? target : labels[target];
+      }
+      // Rows of the index are already sorted by id, but not by label
+      if (labels != null) {
+        Arrays.sort(neighbours, 0, degree);
+      }
+
+      int first = position;
+      for (int edge = 0; edge < degree; edge++) {
+        int value;
+        if (edge == 0) {
+          // Zigzag maps small differences of either sign to small unsigned numbers
+          int difference = neighbours[0] - label;
+          value = (difference << 1) ^ (difference >> 31);
+        } else {
+          value = neighbours[edge] - neighbours[edge - 1] - 1;
+        }
+        position = writeVarint(out, position, value);
+      }
+      return position - first;
+    }
+  }
+
+  /**
+   * Helper method that writes an unsigned variable-length integer.
+   *
+   * @param out buffer to write to, or null to only count the bytes
+   * @param position position to write the first byte at
+   * @param value number to write, read as unsigned
+   * @return position after the last byte written
+   */
+  private static int writeVarint(ByteBuffer out, int position, int value) {
+    while ((value & ~0x7F) != 0) {
+      if (out != null) {
+        out.put(position, (byte) ((value & 0x7F) | 0x80));
+      }
+      position++;
+      value >>>= 7;
+    }
+    if (out != null) {
+      out.put(position, (byte) value);
+    }
+    return position + 1;
+  }
+
+  /**
+   * Number of verticies in the adjacency.
+   *
+   * @return int number of verticies
+   */
+  public int vertexCount() {
+    return offsets.capacity() - 1;
+  }
+
+  /**
+   * Gets the order the verticies were labelled in.
+   *
+   * @return ordering of the labels
+   */
+  public VertexOrdering getOrdering() {
+    return ordering;
+  }
+
+  /**
+   * Gets the label of a vertex.
+   *
+   * @param vertex id of the vertex in the index
+   * @return label of its row
+   */
+  public int label(int vertex) {
+    return labels == null ? vertex : labels.get(vertex);
+  }
+
+  /**
+   * Gets the vertex with a label.
+   *
+   * @param label label of a row
+   * @return id of the vertex in the index
+   */
+  public int vertex(int label) {
+    return verticies == null ? label : verticies.get(label);
+  }
+
+  /**
+   * Number of edges in the adjacency.
+   *
+   * @return int number of edges
+   */
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Counts the edges leaving a vertex, which is the number of bytes in its row that end a number.
+   *
+   * @param label label of the source vertex
+   * @return out-degree of the vertex
+   */
+  public int degree(int label) {
+    int degree = 0;
+    for (int position = offsets.get(label); position < offsets.get(label + 1); position++) {
+      if (bytes.get(position) >= 0) {
+        degree++;
+      }
+    }
+    return degree;
+  }
+
+  /**
+   * Passes the label of every destination of a vertex to an action, in increasing label order.
+   *
+   * @param label label of the source vertex
+   * @param action action to perform on each destination label
+   */
+  public void forEachNeighbour(int label, IntConsumer action) {
+    int position = offsets.get(label);
+    int end = offsets.get(label + 1);
+    int previous = -1;
+
+    while (position < end) {
+      // Read one variable-length integer
+      int value = 0;
+      int shift = 0;
+      byte next;
+      do {
+        next = bytes.get(position++);
+        value |= (next & 0x7F) << shift;
+        shift += 7;
+      } while (next < 0);
+
+      if (previous < 0) {
+        previous = label + ((value >>> 1) ^ -(value & 1));
+      } else {
+        previous += value + 1;
+      }
+      action.accept(previous);
+    }
+  }
+
+  /**
+   * Decodes the destination labels of a vertex into an array.
+   *
+   * @param label label of the source vertex
+   * @param into array with room for every destination of the vertex
+   * @return number of labels written, in increasing order from the start of the array
+   */
+  public int decode(int label, int[] into) {
+    int[] size = {0};
+    forEachNeighbour(label, neighbour -> into[size[0]++] = neighbour);
+    return size[0];
+  }
+
+  /**
+   * Number of bytes the rows take compressed, counting their offsets.
+   *
+   * @return size of the compressed rows in bytes
+   */
+  public long compressedBytes() {
+    return bytes.capacity() + offsets.capacity() * 4L;
+  }
+
+  /**
+   * Number of bytes the labels take, which is nothing if the verticies were not relabelled.
+   *
+   * @return size of the label arrays in bytes
+   */
+  public long labelBytes() {
+    return labels == null ? 0 : (labels.capacity() + verticies.capacity()) * 4L;
+  }
+
+  /**
+   * Number of bytes the same rows take as plain compressed sparse rows of ints.
+   *
+   * @return size of the plain rows in bytes
+   */
+  public long plainBytes() {
+    return (offsets.capacity() + (long) edgeCount) * 4L;
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the adjacency.
+   *
+   * @return approximate heap footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    return storage == GraphStorage.HEAP ? compressedBytes() + labelBytes() : 0;
+  }
+
+  /**
+   * Estimates the number of bytes the adjacency uses outside the heap.
+   *
+   * @return approximate off-heap footprint in bytes
+   */
+  public long estimateOffHeapBytes() {
+    return storage == GraphStorage.OFF_HEAP ? compressedBytes() + labelBytes() : 0;
+  }
+}
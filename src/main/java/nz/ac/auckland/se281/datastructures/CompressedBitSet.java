@@ -0,0 +1,123 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of ints that only stores the 64 bit words that have a bit set, each with the
+ * index of the word. A sparse set of large ints then costs 12 bytes per non-empty word instead of a
+ * word for every 64 ints up to the largest one. Unions merge the two sorted word lists in linear
+ * time.
+ */
+public class CompressedBitSet {
+  public static final CompressedBitSet EMPTY = new CompressedBitSet(new int[0], new long[0]);
+
+  private final int[] indices;
+  private final long[] words;
+
+  /**
+   * Helper constructor that takes ownership of the word lists.
+   *
+   * @param indices index of each non-empty word, in increasing order
+   * @param words bits of each non-empty word
+   */
+  private CompressedBitSet(int[] indices, long[] words) {
+    this.indices = indices;
+    this.words = words;
+  }
+
+  /**
+   * Creates a set of one int.
+   *
+   * @param bit int in the set, which must not be negative
+   * @return set of the int
+   */
+  public static CompressedBitSet of(int bit) {
+    return new CompressedBitSet(new int[] {bit >>> 6}, new long[] {1L << bit});
+  }
+
+  /**
+   * Creates the union of this set and another.
+   *
+   * @param other set to unite with
+   * @return set of every int in either set
+   */
+  public CompressedBitSet or(CompressedBitSet other) {
+    if (other.indices.length == 0) {
+      return this;
+    }
+    if (indices.length == 0) {
+      return other;
+    }
+
+    int[] mergedIndices = new int[indices.length + other.indices.length];
+    long[] mergedWords = new long[mergedIndices.length];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < indices.length || j < other.indices.length) {
+      if (j == other.indices.length || (i < indices.length && indices[i] < other.indices[j])) {
+        mergedIndices[size] = indices[i];
+        mergedWords[size++] = words[i++];
+      } else if (i == indices.length || other.indices[j] < indices[i]) {
+        mergedIndices[size] = other.indices[j];
+        mergedWords[size++] = other.words[j++];
+      } else {
+        mergedIndices[size] = indices[i];
+        mergedWords[size++] = words[i++] | other.words[j++];
+      }
+    }
+    return new CompressedBitSet(
+        Arrays.copyOf(mergedIndices, size), Arrays.copyOf(mergedWords, size));
+  }
+
+  /**
+   * Checks if an int is in the set.
+   *
+   * @param bit int to look for
+   * @return true if the int is in the set, false otherwise
+   */
+  public boolean get(int bit) {
+    int word = Arrays.binarySearch(indices, bit >>> 6);
+    return word >= 0 && (words[word] & (1L << bit)) != 0;
+  }
+
+  /**
+   * Number of ints in the set.
+   *
+   * @return int number of ints
+   */
+  public int cardinality() {
+    int count = 0;
+    for (long word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Passes every int in the set to an action, in increasing order.
+   *
+   * @param action action to perform on each int
+   */
+  public void forEach(IntConsumer action) {
+    for (int word = 0; word < words.length; word++) {
+      for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+        action.accept((indices[word] << 6) + Long.numberOfTrailingZeros(bits));
+      }
+    }
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the set.
+   *
+   * @return approximate memory footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    return indices.length * 12L;
+  }
+}
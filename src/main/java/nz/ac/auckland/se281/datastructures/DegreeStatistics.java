@@ -0,0 +1,242 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.stream.IntStream;
+
+/**
+ * The size and shape of a graph: its in-degree and out-degree distributions, maximum degrees,
+ * isolated verticies and density. The degree of each vertex is the difference of two row offsets
+ * of the index, so the statistics are found in one parallel pass over the verticies without
+ * reading a single edge, which keeps them fast however many edges the graph has.
+ *
+ * <p>Degrees are counted in buckets of powers of two. Bucket 0 holds degree 0, and bucket k holds
+ * the degrees from 2^(k - 1) to 2^k - 1.
+ */
+public class DegreeStatistics {
+  // Number of verticies evaluated by each parallel task
+  private static final int RANGE_SIZE = 4096;
+  // Enough buckets for any int degree
+  private static final int BUCKET_COUNT = 33;
+  // Layout of the counts of each range: the two histograms, then the maximums and isolated count
+  private static final int MAX_OUT = 2 * BUCKET_COUNT;
+  private static final int MAX_IN = MAX_OUT + 1;
+  private static final int ISOLATED = MAX_OUT + 2;
+  private static final int COUNT_LENGTH = MAX_OUT + 3;
+
+  private final int vertexCount;
+  private final int edgeCount;
+  private final int selfLoopCount;
+  private final long[] outHistogram;
+  private final long[] inHistogram;
+  private final int maxOutDegree;
+  private final int maxInDegree;
+  private final int isolatedCount;
+
+  /**
+   * Evaluates the statistics of an indexed graph.
+   *
+   * @param index primitive index of the graph
+   * @param selfLoopCount number of edges from a vertex to itself, which the graph keeps counted
+   */
+  public DegreeStatistics(GraphIndex<?> index, int selfLoopCount) {
+    vertexCount = index.vertexCount();
+    edgeCount = index.edgeCount();
+    this.selfLoopCount = selfLoopCount;
+    int rangeCount = (vertexCount + RANGE_SIZE - 1) / RANGE_SIZE;
+
+    long[] counts =
+        IntStream.range(0, rangeCount)
+            .parallel()
+            .mapToObj(
+                range ->
+                    evaluate(
+                        index, range * RANGE_SIZE, Math.min(vertexCount, (range + 1) * RANGE_SIZE)))
+            .reduce(new long[COUNT_LENGTH], DegreeStatistics::combine);
+
+    outHistogram = new long[BUCKET_COUNT];
+    inHistogram = new long[BUCKET_COUNT];
+    System.arraycopy(counts, 0, outHistogram, 0, BUCKET_COUNT);
+    System.arraycopy(counts, BUCKET_COUNT, inHistogram, 0, BUCKET_COUNT);
+    maxOutDegree = (int) counts[MAX_OUT];
+    maxInDegree = (int) counts[MAX_IN];
+    isolatedCount = (int) counts[ISOLATED];
+  }
+
+  /**
+   * Helper method that counts the degrees of a range of verticies.
+   *
+   * @param index primitive index of the graph
+   * @param from first vertex of the range
+   * @param to vertex after the last vertex of the range
+   * @return histograms, maximum degrees and isolated count of the range
+   */
+  private static long[] evaluate(GraphIndex<?> index, int from, int to) {
+    long[] counts = new long[COUNT_LENGTH];
+
+    for (int vertex = from; vertex < to; vertex++) {
+      int outDegree = index.end(vertex) - index.start(vertex);
+      int inDegree = index.reverseEnd(vertex) - index.reverseStart(vertex);
+      counts[bucket(outDegree)]++;
+      counts[BUCKET_COUNT + bucket(inDegree)]++;
+      counts[MAX_OUT] = Math.max(counts[MAX_OUT], outDegree);
+      counts[MAX_IN] = Math.max(counts[MAX_IN], inDegree);
+      if (outDegree == 0 && inDegree == 0) {
+        counts[ISOLATED]++;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Helper method that combines the counts of two ranges.
+   *
+   * @param a counts of one range
+   * @param b counts of another range
+   * @return counts of both ranges
+   */
+  private static long[] combine(long[] a, long[] b) {
+    long[] counts = new long[COUNT_LENGTH];
+    for (int i = 0; i < MAX_OUT; i++) {
+      counts[i] = a[i] + b[i];
+    }
+    counts[MAX_OUT] = Math.max(a[MAX_OUT], b[MAX_OUT]);
+    counts[MAX_IN] = Math.max(a[MAX_IN], b[MAX_IN]);
+    counts[ISOLATED] = a[ISOLATED] + b[ISOLATED];
+    return counts;
+  }
+
+  /**
+   * Helper method that gets the bucket a degree is counted in.
+   *
+   * @param degree degree of a vertex
+   * @return bucket of the degree
+   */
+  private static int bucket(int degree) {
+    return 32 - Integer.numberOfLeadingZeros(degree);
+  }
+
+  /**
+   * Gets the smallest degree counted in a bucket.
+   *
+   * @param bucket bucket of the histograms
+   * @return smallest degree of the bucket
+   */
+  public static int bucketStart(int bucket) {
+    return bucket == 0 ? 0 : 1 << (bucket - 1);
+  }
+
+  /**
+   * Gets the largest degree counted in a bucket.
+   *
+   * @param bucket bucket of the histograms
+   * @return largest degree of the bucket
+   */
+  public static int bucketEnd(int bucket) {
+    return bucket == 0 ? 0 : (int) ((1L << bucket) - 1);
+  }
+
+  /**
+   * Number of buckets in the histograms, up to the last one that counts any vertex.
+   *
+   * @return int number of buckets
+   */
+  public int bucketCount() {
+    return Math.max(bucket(maxOutDegree), bucket(maxInDegree)) + 1;
+  }
+
+  /**
+   * Number of verticies with an out-degree in a bucket.
+   *
+   * @param bucket bucket of the histogram
+   * @return number of verticies
+   */
+  public long outDegreeCount(int bucket) {
+    return outHistogram[bucket];
+  }
+
+  /**
+   * Number of verticies with an in-degree in a bucket.
+   *
+   * @param bucket bucket of the histogram
+   * @return number of verticies
+   */
+  public long inDegreeCount(int bucket) {
+    return inHistogram[bucket];
+  }
+
+  /**
+   * Number of verticies in the graph.
+   *
+   * @return int number of verticies
+   */
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * Number of edges in the graph.
+   *
+   * @return int number of edges
+   */
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Number of edges from a vertex to itself.
+   *
+   * @return int number of self-loops
+   */
+  public int getSelfLoopCount() {
+    return selfLoopCount;
+  }
+
+  /**
+   * Number of verticies with no edges leaving or arriving.
+   *
+   * @return int number of isolated verticies
+   */
+  public int getIsolatedCount() {
+    return isolatedCount;
+  }
+
+  /**
+   * Largest number of edges leaving one vertex.
+   *
+   * @return int maximum out-degree
+   */
+  public int getMaxOutDegree() {
+    return maxOutDegree;
+  }
+
+  /**
+   * Largest number of edges arriving at one vertex.
+   *
+   * @return int maximum in-degree
+   */
+  public int getMaxInDegree() {
+    return maxInDegree;
+  }
+
+  /**
+   * Average number of edges leaving, and so also arriving at, each vertex.
+   *
+   * @return mean degree, or 0 if the graph has no verticies
+   */
+  public double getMeanDegree() {
+    return vertexCount == 0 ? 0 : (double) edgeCount / vertexCount;
+  }
+
+  /**
+   * Fraction of the ordered pairs of verticies, including a vertex with itself, that have an edge.
+   * Self-loops are counted because a graph is read as a relation on its verticies.
+   *
+   * @return density between 0 and 1, or 0 if the graph has no verticies
+   */
+  public double getDensity() {
+    return vertexCount == 0 ? 0 : edgeCount / ((double) vertexCount * vertexCount);
+  }
+}
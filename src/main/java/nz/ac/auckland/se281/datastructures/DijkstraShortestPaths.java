@@ -0,0 +1,111 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Shortest weighted paths from one source vertex, found with Dijkstra's algorithm over the CSR
+ * arrays of a {@link GraphIndex} and an {@link IndexedMinHeap}. Every edge weight must be
+ * non-negative. If a target is given the search stops as soon as the target is settled, since its
+ * distance can no longer change.
+ */
+public class DijkstraShortestPaths {
+  private static final int NO_PARENT = -1;
+
+  private final double[] distance;
+  private final int[] parent;
+
+  /**
+   * Finds the shortest paths from a source to every vertex it can reach.
+   *
+   * @param index index of the graph
+   * @param source id of the vertex the paths leave from
+   */
+  public DijkstraShortestPaths(GraphIndex<?> index, int source) {
+    this(index, source, NO_PARENT);
+  }
+
+  /**
+   * Finds the shortest paths from a source, stopping once the shortest path to target is known.
+   * Only the distance and path of the target are then final.
+   *
+   * @param index index of the graph
+   * @param source id of the vertex the paths leave from
+   * @param target id of the vertex to stop at, or -1 to find paths to every vertex
+   */
+  public DijkstraShortestPaths(GraphIndex<?> index, int source, int target) {
+    int vertexCount = index.vertexCount();
+    distance = new double[vertexCount];
+    parent = new int[vertexCount];
+    Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    Arrays.fill(parent, NO_PARENT);
+
+    IndexedMinHeap heap = new IndexedMinHeap(vertexCount);
+    boolean[] settled = new boolean[vertexCount];
+    distance[source] = 0;
+    heap.insertOrDecrease(source, 0);
+
+    while (!heap.isEmpty()) {
+      int vertex = heap.removeMin();
+      settled[vertex] = true;
+      if (vertex == target) {
+        break;
+      }
+
+      for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+        int neighbour = index.target(edge);
+        double candidate = distance[vertex] + index.weight(edge);
+        if (!settled[neighbour] && candidate < distance[neighbour]) {
+          distance[neighbour] = candidate;
+          parent[neighbour] = vertex;
+          heap.insertOrDecrease(neighbour, candidate);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the length of the shortest path to a vertex.
+   *
+   * @param vertex id of the destination vertex
+   * @return total weight of the shortest path, or infinity if the vertex was not reached
+   */
+  public double distance(int vertex) {
+    return distance[vertex];
+  }
+
+  /**
+   * Checks if a path to a vertex was found.
+   *
+   * @param vertex id of the destination vertex
+   * @return true if the vertex was reached, false otherwise
+   */
+  public boolean isReachable(int vertex) {
+    return distance[vertex] != Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Gets the verticies along the shortest path to a vertex.
+   *
+   * @param vertex id of the destination vertex
+   * @return ids of the verticies from the source to the destination, empty if it was not reached
+   */
+  public int[] path(int vertex) {
+    if (!isReachable(vertex)) {
+      return new int[0];
+    }
+
+    int length = 0;
+    for (int current = vertex; current != NO_PARENT; current = parent[current]) {
+      length++;
+    }
+    int[] path = new int[length];
+    for (int current = vertex; current != NO_PARENT; current = parent[current]) {
+      path[--length] = current;
+    }
+    return path;
+  }
+}
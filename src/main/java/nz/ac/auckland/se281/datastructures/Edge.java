@@ -1,23 +1,42 @@
 // AUTHOR: Tony Lim
 // DATE CREATED: 19/05/2023
-// LAST EDITED: 28/05/2023
+// LAST EDITED: 19/10/2026
 
 package nz.ac.auckland.se281.datastructures;
 
 /**
- * An edge in a graph that connects two verticies.
+ * An edge in a graph that connects two verticies, with a weight that defaults to {@link
+ * #DEFAULT_WEIGHT} for unweighted graphs.
+ *
+ * <p>Two edges are equal if they join the same verticies in the same direction, whatever their
+ * weights, so a set of edges holds at most one edge between each ordered pair of verticies.
  *
  * <p>You must NOT change the signature of the constructor of this class.
  *
  * @param <T> The type of each vertex.
  */
 public class Edge<T> {
+  public static final double DEFAULT_WEIGHT = 1.0;
+
   private T source;
   private T destination;
+  private double weight;
 
   public Edge(T source, T destination) {
+    this(source, destination, DEFAULT_WEIGHT);
+  }
+
+  /**
+   * Creates a weighted edge.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @param weight weight (cost) of travelling along the edge
+   */
+  public Edge(T source, T destination, double weight) {
     this.source = source;
     this.destination = destination;
+    this.weight = weight;
   }
 
   /**
@@ -37,4 +56,30 @@ public class Edge<T> {
   public T getDestination() {
     return destination;
   }
+
+  /**
+   * Gets the weight of the edge.
+   *
+   * @return double weight of the edge
+   */
+  public double getWeight() {
+    return weight;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Edge)) {
+      return false;
+    }
+    Edge<?> other = (Edge<?>) obj;
+    return source.equals(other.source) && destination.equals(other.destination);
+  }
+
+  @Override
+  public int hashCode() {
+    return source.hashCode() * 31 + destination.hashCode();
+  }
 }
@@ -0,0 +1,227 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A set of edges between vertex ids, each packed into one long with the source in the high 32 bits
+ * and the destination in the low 32 bits. Keys are kept in a single long array with open addressing
+ * and linear probing, so the set costs 16 bytes per edge at its maximum load of one half, and a
+ * lookup is a hash and usually one or two array reads with no boxing.
+ *
+ * <p>Lookups do not modify the set, so once it has been built and safely published it can be read
+ * by any number of threads.
+ */
+public class EdgeKeySet {
+  // Ids are never negative, so no edge packs to this key
+  private static final long EMPTY = -1L;
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] table;
+  private int size;
+
+  /** Creates an empty set. */
+  public EdgeKeySet() {
+    this(0);
+  }
+
+  /**
+   * Creates an empty set that can hold the given number of edges without growing.
+   *
+   * @param expectedEdges number of edges the set is expected to hold
+   */
+  public EdgeKeySet(int expectedEdges) {
+    table = newTable(capacityFor(expectedEdges));
+  }
+
+  /**
+   * Packs an edge into a key.
+   *
+   * @param source id of the vertex the edge leaves from
+   * @param destination id of the vertex the edge arrives at
+   * @return key of the edge
+   */
+  public static long key(int source, int destination) {
+    return ((long) source << 32) | (destination & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gets the source of a packed edge.
+   *
+   * @param key key of the edge
+   * @return id of the vertex the edge leaves from
+   */
+  public static int source(long key) {
+    return (int) (key >>> 32);
+  }
+
+  /**
+   * Gets the destination of a packed edge.
+   *
+   * @param key key of the edge
+   * @return id of the vertex the edge arrives at
+   */
+  public static int destination(long key) {
+    return (int) key;
+  }
+
+  /**
+   * Adds an edge to the set.
+   *
+   * @param source id of the vertex the edge leaves from
+   * @param destination id of the vertex the edge arrives at
+   * @return true if the edge was added, false if the set already contained it
+   */
+  public boolean add(int source, int destination) {
+    if ((size + 1) * 2L > table.length) {
+      rehash(table.length * 2);
+    }
+
+    long key = key(source, destination);
+    int mask = table.length - 1;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      if (table[slot] == key) {
+        return false;
+      }
+      if (table[slot] == EMPTY) {
+        table[slot] = key;
+        size++;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Removes an edge from the set. The keys after it in the same run of slots are shifted back
+   * rather than leaving a tombstone, so lookups stay as short as in a set that never had the edge.
+   *
+   * @param source id of the vertex the edge leaves from
+   * @param destination id of the vertex the edge arrives at
+   * @return true if the edge was removed, false if the set did not contain it
+   */
+  public boolean remove(int source, int destination) {
+    long key = key(source, destination);
+    int mask = table.length - 1;
+    int slot = hash(key) & mask;
+    while (table[slot] != key) {
+      if (table[slot] == EMPTY) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    // Move back each later key of the run whose home slot is not between the hole and itself
+    int hole = slot;
+    for (int next = (hole + 1) & mask; table[next] != EMPTY; next = (next + 1) & mask) {
+      int home = hash(table[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        table[hole] = table[next];
+        hole = next;
+      }
+    }
+    table[hole] = EMPTY;
+    size--;
+    return true;
+  }
+
+  /**
+   * Checks if the set contains an edge.
+   *
+   * @param source id of the vertex the edge leaves from
+   * @param destination id of the vertex the edge arrives at
+   * @return true if the set contains the edge, false otherwise
+   */
+  public boolean contains(int source, int destination) {
+    long key = key(source, destination);
+    long[] keys = table;
+    int mask = keys.length - 1;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return true;
+      }
+      if (keys[slot] == EMPTY) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Number of edges in the set.
+   *
+   * @return int number of edges
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the set.
+   *
+   * @return approximate memory footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    return table.length * 8L;
+  }
+
+  /**
+   * Helper method that moves every key into a table of a new capacity.
+   *
+   * @param capacity new capacity, a power of two
+   */
+  private void rehash(int capacity) {
+    long[] old = table;
+    table = newTable(capacity);
+    int mask = capacity - 1;
+    for (long key : old) {
+      if (key != EMPTY) {
+        int slot = hash(key) & mask;
+        while (table[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+      }
+    }
+  }
+
+  /**
+   * Helper method that gets the smallest power of two capacity that keeps the load at most a half.
+   *
+   * @param expectedEdges number of edges to hold
+   * @return capacity of the table
+   */
+  private static int capacityFor(int expectedEdges) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedEdges * 2L) {
+      capacity *= 2;
+    }
+    return capacity;
+  }
+
+  /**
+   * Helper method that creates an empty table.
+   *
+   * @param capacity number of slots
+   * @return table with every slot empty
+   */
+  private static long[] newTable(int capacity) {
+    long[] keys = new long[capacity];
+    Arrays.fill(keys, EMPTY);
+    return keys;
+  }
+
+  /**
+   * Helper method that mixes the bits of a key, so that nearby ids spread over the table.
+   *
+   * @param key key of an edge
+   * @return hash of the key
+   */
+  private static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+}
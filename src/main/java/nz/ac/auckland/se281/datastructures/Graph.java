@@ -1,17 +1,24 @@
 // AUTHOR: Tony Lim
 // DATE CREATED: 19/05/2023
-// LAST EDITED: 03/06/2023
+// LAST EDITED: 19/10/2026
 
 package nz.ac.auckland.se281.datastructures;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Supplier;
+import nz.ac.auckland.se281.metrics.GraphEngineStats;
+import nz.ac.auckland.se281.metrics.GraphLoadEvent;
 
 /**
  * A graph that is composed of a set of verticies and edges.
@@ -21,101 +28,892 @@ import java.util.TreeSet;
  * @param <T> The type of each vertex, that have a total ordering.
  */
 public class Graph<T extends Comparable<T>> {
-  private final Set<T> verticies;
-  private final Set<Edge<T>> edges;
-  private final HashMap<T, LinkedList<T>> adjacencyMap;
+  // Approximate heap cost of the map entry for the id of each vertex, its three list slots, its
+  // topological position, search mark and source bit
+  private static final long BYTES_PER_VERTEX = 69;
+
+  // Ids that are handed out once and never reused, so the edge keys of a removed vertex go stale
+  private final HashMap<T, Integer> vertexIds;
+  private int nextVertexId;
+  // Lists indexed by vertex id, holding null for the id of a removed vertex
+  private final ArrayList<T> verticiesById;
+  // Ids of the destinations of the edges leaving each vertex, with their weights
+  private final ArrayList<IdRow> adjacencyRows;
+  // Ids of the sources of the edges arriving at each vertex
+  private final ArrayList<IdRow> reverseAdjacencyRows;
+  // Every edge as a packed pair of vertex ids, for constant time edge lookups
+  private final EdgeKeySet edgeKeys;
+  // Derived state that is kept up to date by every mutation rather than recomputed
+  private int edgeCount;
+  private int selfLoopCount;
+  private int mutualEdgeCount;
+  private int negativeWeightCount;
+  private int weightedEdgeCount;
+  // Ids of the verticies that no edge from another vertex arrives at
+  private final BitSet sourceIds = new BitSet();
+  // Position of each vertex id in a topological order that ignores self-loops, which is only kept
+  // once a query has needed it and only while the graph stays acyclic
+  private OrderState orderState = OrderState.UNKNOWN;
+  private int[] topologicalOrder = new int[0];
+  private int nextOrder;
+  // Marks the verticies each search of the topological order visits, by the number of the search
+  private int[] searchMarks = new int[0];
+  private int searchCount;
+  private final GraphStorage storage;
+  // Snapshot of the current state that is built on first use and discarded by any mutation
+  private GraphSnapshot<T> snapshot;
   // Comparator helps sorts numerically
-  private Comparator<T> comparator =
-      new Comparator<T>() {
-        @Override
-        public int compare(T arg0, T arg1) {
-          return Integer.parseInt((String) arg0) - Integer.parseInt((String) arg1);
-        }
-      };
+  private final Comparator<T> comparator = numericOrder();
 
   /**
-   * Constructor method that initialises vertice and edge sets as well as populate adjacencyMap with
-   * key = vertex and value = set of all destination vertices that have the key vertex as the
-   * source.
+   * Constructor method that numbers the verticies and fills the adjacency rows of each vertex with
+   * the ids of the verticies its edges arrive at and leave from. Each edge is inserted once so
+   * construction is linear in the number of edges, and duplicate edges are only stored once.
    *
    * @param verticies Set of all vertices in graph
    * @param edges Set of all edges in graph
    */
   public Graph(Set<T> verticies, Set<Edge<T>> edges) {
-    this.verticies = verticies;
-    this.edges = edges;
-    adjacencyMap = new HashMap<T, LinkedList<T>>();
+    this(verticies, edges, GraphStorage.configured());
+  }
+
+  /**
+   * Constructor method that builds the graph like {@link #Graph(Set, Set)}, with the arrays of its
+   * snapshots kept in the given storage.
+   *
+   * @param verticies Set of all vertices in graph
+   * @param edges Set of all edges in graph
+   * @param storage where snapshots of the graph keep their arrays
+   */
+  public Graph(Set<T> verticies, Set<Edge<T>> edges, GraphStorage storage) {
+    this.storage = storage;
+    GraphLoadEvent event = new GraphLoadEvent();
+    event.begin();
+    long start = System.nanoTime();
+
+    vertexIds = new HashMap<T, Integer>(verticies.size() * 2);
+    verticiesById = new ArrayList<T>(verticies.size());
+    adjacencyRows = new ArrayList<IdRow>(verticies.size());
+    reverseAdjacencyRows = new ArrayList<IdRow>(verticies.size());
+    edgeKeys = new EdgeKeySet(edges.size());
 
     for (T vertex : verticies) {
-      adjacencyMap.put(vertex, destinationsWithSameSourceVertex(vertex));
+      insertVertex(vertex);
+    }
+    for (Edge<T> edge : edges) {
+      insertEdge(edge.getSource(), edge.getDestination(), edge.getWeight());
     }
+
+    recordLoad(this, event, start, vertexIds.size(), edgeCount, estimateFootprintBytes());
   }
 
   /**
-   * The roots of the graph are vertices that are not the destination of any edge (apart from
-   * self-loops). If the vertex is part of an equivalence class, it is a root vertice. If there are
-   * multiple vertices in one equivalence class, return the minimum value.
+   * Builds a snapshot straight from sets of verticies and edges, for a graph that is only queried
+   * and never changed. No mutable graph is built, so with {@link GraphStorage#OFF_HEAP} storage the
+   * adjacency of the graph is only kept outside the heap, in the index of the snapshot. Its
+   * counters are found from the index instead of being kept up to date edge by edge. Like the
+   * constructor, it adds a vertex that only appears in an edge, and keeps an edge that appears more
+   * than once a single time, with its first weight.
    *
-   * @return set of root vertices
+   * @param verticies Set of all vertices in graph
+   * @param edges all edges in graph
+   * @param storage where the snapshot keeps its arrays
+   * @return snapshot of the graph
    */
-  public Set<T> getRoots() {
-    // Set of rootVertices is a subset of vertices of a graph
-    Set<T> rootVertices = new TreeSet<T>(comparator);
-    LinkedList<T> setOfAllDestinationVertices = new LinkedList<T>();
+  public static <T extends Comparable<T>> GraphSnapshot<T> snapshotOf(
+      Set<T> verticies, Collection<Edge<T>> edges, GraphStorage storage) {
+    GraphLoadEvent event = new GraphLoadEvent();
+    event.begin();
+    long start = System.nanoTime();
 
-    // Form setOfAllDestinationVertices
-    for (T vertex : verticies) {
-      setOfAllDestinationVertices.addAll(adjacencyMap.get(vertex));
+    Set<T> allVerticies = verticies;
+    for (Edge<T> edge : edges) {
+      if (!allVerticies.contains(edge.getSource())
+          || !allVerticies.contains(edge.getDestination())) {
+        if (allVerticies == verticies) {
+          allVerticies = new HashSet<T>(verticies);
+        }
+        allVerticies.add(edge.getSource());
+        allVerticies.add(edge.getDestination());
+      }
     }
 
-    // Compare setOfAllDestinationVertices with verticies -> intersection are root nodes
-    for (T vertex : verticies) {
-      // If the node is a not a destination of any edge, then it is a root vertex
-      // UNLESS it is a isolated node with a self-loop
-      if (!setOfAllDestinationVertices.contains(vertex)) {
-        rootVertices.add(vertex);
+    GraphIndex<T> index = GraphIndex.create(allVerticies, edges, numericOrder(), storage);
+    recordLoad(
+        index,
+        event,
+        start,
+        index.vertexCount(),
+        index.edgeCount(),
+        index.estimateFootprintBytes());
+    return GraphSnapshot.of(index, numericOrder());
+  }
+
+  /**
+   * Helper method that records the time and heap footprint of loading a graph, as a JFR event and
+   * in the engine statistics.
+   *
+   * @param graph the loaded graph, whose footprint is reported while it is in use
+   * @param event load event that began when loading started
+   * @param start time loading started, from {@link System#nanoTime()}
+   * @param vertexCount number of verticies loaded
+   * @param edgeCount number of edges loaded
+   * @param footprintBytes approximate heap footprint of the loaded graph
+   */
+  private static void recordLoad(
+      Object graph,
+      GraphLoadEvent event,
+      long start,
+      int vertexCount,
+      int edgeCount,
+      long footprintBytes) {
+    GraphEngineStats.getInstance()
+        .recordLoad(graph, vertexCount, edgeCount, System.nanoTime() - start, footprintBytes);
+    event.end();
+    if (event.shouldCommit()) {
+      event.vertexCount = vertexCount;
+      event.edgeCount = edgeCount;
+      event.footprintBytes = footprintBytes;
+      event.commit();
+    }
+  }
+
+  /**
+   * Helper method that creates the order of the verticies, which are whole numbers as strings.
+   *
+   * @return comparator that sorts the verticies numerically
+   */
+  private static <T> Comparator<T> numericOrder() {
+    return new Comparator<T>() {
+      @Override
+      public int compare(T arg0, T arg1) {
+        return Integer.parseInt((String) arg0) - Integer.parseInt((String) arg1);
       }
+    };
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the structures of this graph, not counting the
+   * vertex values themselves.
+   *
+   * @return approximate memory footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    long bytes = vertexIds.size() * BYTES_PER_VERTEX + edgeKeys.estimateFootprintBytes();
+    for (IdRow row : adjacencyRows) {
+      bytes += row == null ? 0 : row.estimateFootprintBytes();
     }
+    for (IdRow row : reverseAdjacencyRows) {
+      bytes += row == null ? 0 : row.estimateFootprintBytes();
+    }
+    return bytes;
+  }
 
-    for (T vertex : verticies) {
-      if (!getEquivalenceClass(vertex).isEmpty()) {
-        rootVertices.add(Collections.min(getEquivalenceClass(vertex), comparator));
+  /**
+   * Adds a vertex with no edges to the graph.
+   *
+   * @param vertex vertex to add
+   * @return true if the vertex was added, false if it was already in the graph
+   */
+  public boolean addVertex(T vertex) {
+    return insertVertex(vertex);
+  }
+
+  /**
+   * Removes a vertex from the graph along with every edge that leaves or arrives at it. Each edge
+   * is only removed from the row of the neighbour at its other end, and the rows of the vertex are
+   * dropped whole, so only the rows of the vertex and its neighbours are visited.
+   *
+   * @param vertex vertex to remove
+   * @return true if the vertex was removed, false if it was not in the graph
+   */
+  public boolean removeVertex(T vertex) {
+    Integer id = vertexIds.get(vertex);
+    if (id == null) {
+      return false;
+    }
+
+    IdRow row = adjacencyRows.get(id);
+    for (int position = 0; position < row.size(); position++) {
+      int destination = row.get(position);
+      edgeKeys.remove(id, destination);
+      uncountEdge(row.weight(position));
+      if (destination == id) {
+        selfLoopCount--;
+        continue;
+      }
+
+      reverseAdjacencyRows.get(destination).remove(id);
+      if (edgeKeys.contains(destination, id)) {
+        // The reverse edge is removed below, after it has lost its partner here
+        mutualEdgeCount -= 2;
+      }
+      if (sourceInDegree(destination) == 0) {
+        sourceIds.set(destination);
+      }
+    }
+
+    IdRow reverseRow = reverseAdjacencyRows.get(id);
+    for (int position = 0; position < reverseRow.size(); position++) {
+      int source = reverseRow.get(position);
+      // A self-loop was removed with the outgoing edges
+      if (source != id) {
+        edgeKeys.remove(source, id);
+        uncountEdge(adjacencyRows.get(source).remove(id));
       }
     }
 
-    return rootVertices;
+    // Removing edges never breaks the topological order, but may break the only cycle
+    if (orderState == OrderState.CYCLIC) {
+      orderState = OrderState.UNKNOWN;
+    }
+    vertexIds.remove(vertex);
+    sourceIds.clear(id);
+    verticiesById.set(id, null);
+    adjacencyRows.set(id, null);
+    reverseAdjacencyRows.set(id, null);
+    invalidate();
+    return true;
   }
 
   /**
-   * For all vertices, vertex -> vertex (self-loop) must exist for this graph to be reflexive.
+   * Adds an edge with the default weight to the graph, adding either vertex first if it is not
+   * already in the graph.
    *
-   * @return boolean value - true if the graph is reflexive, false if not reflexive
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return true if the edge was added, false if the graph already contained it
    */
-  public boolean isReflexive() {
+  public boolean addEdge(T source, T destination) {
+    return insertEdge(source, destination, Edge.DEFAULT_WEIGHT);
+  }
 
-    for (T vertex : verticies) {
-      if (!adjacencyMap.get(vertex).contains(vertex)) {
-        return false;
+  /**
+   * Adds a weighted edge to the graph, adding either vertex first if it is not already in the
+   * graph. An edge that is already in the graph keeps its weight.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @param weight weight of the edge
+   * @return true if the edge was added, false if the graph already contained it
+   */
+  public boolean addEdge(T source, T destination, double weight) {
+    return insertEdge(source, destination, weight);
+  }
+
+  /**
+   * Gets the weight of an edge.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return weight of the edge, or NaN if the graph does not contain the edge
+   */
+  public double getWeight(T source, T destination) {
+    if (!hasEdge(source, destination)) {
+      return Double.NaN;
+    }
+    return edgeWeight(source, destination);
+  }
+
+  /**
+   * Checks if the graph contains an edge, in constant time.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return true if the graph contains the edge, false otherwise
+   */
+  public boolean hasEdge(T source, T destination) {
+    Integer sourceId = vertexIds.get(source);
+    Integer destinationId = vertexIds.get(destination);
+    return sourceId != null
+        && destinationId != null
+        && edgeKeys.contains(sourceId, destinationId);
+  }
+
+  /**
+   * Checks if any edge has a negative weight, which shortest path queries do not allow.
+   *
+   * @return true if some edge weight is negative, false otherwise
+   */
+  public boolean hasNegativeWeights() {
+    return negativeWeightCount > 0;
+  }
+
+  /**
+   * Removes an edge from the graph. Both vertices stay in the graph.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return true if the edge was removed, false if the graph did not contain it
+   */
+  public boolean removeEdge(T source, T destination) {
+    if (!vertexIds.containsKey(source) || !vertexIds.containsKey(destination)) {
+      return false;
+    }
+    return deleteEdge(source, destination);
+  }
+
+  /**
+   * Number of incoming edges of a vertex, including a self-loop.
+   *
+   * @param vertex vertex to count incoming edges of
+   * @return int number of edges with vertex as the destination
+   */
+  public int getInDegree(T vertex) {
+    return reverseAdjacencyRows.get(vertexIds.get(vertex)).size();
+  }
+
+  /**
+   * Helper method that adds a vertex under the next id, with empty adjacency rows.
+   *
+   * @param vertex vertex to add
+   * @return true if the vertex was added, false if it was already in the graph
+   */
+  private boolean insertVertex(T vertex) {
+    if (vertexIds.putIfAbsent(vertex, nextVertexId) != null) {
+      return false;
+    }
+    int id = nextVertexId++;
+    verticiesById.add(vertex);
+    adjacencyRows.add(new IdRow());
+    reverseAdjacencyRows.add(new IdRow());
+    sourceIds.set(id);
+    if (id == topologicalOrder.length) {
+      topologicalOrder = Arrays.copyOf(topologicalOrder, Math.max(16, id * 2));
+      searchMarks = Arrays.copyOf(searchMarks, topologicalOrder.length);
+    }
+    // A vertex with no edges can go anywhere in the order, so it goes last
+    topologicalOrder[id] = nextOrder++;
+    invalidate();
+    return true;
+  }
+
+  /**
+   * Helper method that adds an edge and updates the in-degrees, the source verticies, the
+   * topological order and the counters used by the reflexivity, symmetry and antisymmetry checks.
+   * Duplicate and reverse edges are found in the edge key set, so no adjacency row is scanned.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @param weight weight of the edge
+   * @return true if the edge was added, false if the graph already contained it
+   */
+  private boolean insertEdge(T source, T destination, double weight) {
+    insertVertex(source);
+    insertVertex(destination);
+
+    int sourceId = vertexIds.get(source);
+    int destinationId = vertexIds.get(destination);
+    if (!edgeKeys.add(sourceId, destinationId)) {
+      return false;
+    }
+    adjacencyRows.get(sourceId).add(destinationId, weight);
+    reverseAdjacencyRows.get(destinationId).add(sourceId, Edge.DEFAULT_WEIGHT);
+    edgeCount++;
+    invalidate();
+
+    if (weight != Edge.DEFAULT_WEIGHT) {
+      weightedEdgeCount++;
+      if (weight < 0) {
+        negativeWeightCount++;
       }
     }
+
+    if (sourceId == destinationId) {
+      selfLoopCount++;
+      return true;
+    }
+
+    sourceIds.clear(destinationId);
+    if (edgeKeys.contains(destinationId, sourceId)) {
+      // Both this edge and its reverse now have a partner
+      mutualEdgeCount += 2;
+    }
+    if (orderState == OrderState.ORDERED
+        && topologicalOrder[sourceId] > topologicalOrder[destinationId]) {
+      restoreOrder(sourceId, destinationId);
+    }
     return true;
   }
 
   /**
-   * If vertex1 -> vertex2, then vertex2 -> vertex1 must exist for this graph to be symmetric.
+   * Helper method that removes an edge between two vertices of the graph and reverts the changes
+   * {@link #insertEdge(Comparable, Comparable, double)} made to the derived state. Removing an edge
+   * never breaks the topological order, but may break the only cycle of a cyclic graph.
    *
-   * @return boolean value - true if the graph is symmetric, false if not symmetric
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return true if the edge was removed, false if the graph did not contain it
    */
-  public boolean isSymmetric() {
-    for (T vertex1 : verticies) {
-      for (T vertex2 : verticies) {
-        if (adjacencyMap.get(vertex2).contains(vertex1)
-            && !adjacencyMap.get(vertex1).contains(vertex2)) {
-          return false;
+  private boolean deleteEdge(T source, T destination) {
+    int sourceId = vertexIds.get(source);
+    int destinationId = vertexIds.get(destination);
+    if (!edgeKeys.remove(sourceId, destinationId)) {
+      return false;
+    }
+    double weight = adjacencyRows.get(sourceId).remove(destinationId);
+    reverseAdjacencyRows.get(destinationId).remove(sourceId);
+    uncountEdge(weight);
+    invalidate();
+
+    if (sourceId == destinationId) {
+      selfLoopCount--;
+      return true;
+    }
+
+    if (sourceInDegree(destinationId) == 0) {
+      sourceIds.set(destinationId);
+    }
+    if (edgeKeys.contains(destinationId, sourceId)) {
+      mutualEdgeCount -= 2;
+    }
+    if (orderState == OrderState.CYCLIC) {
+      orderState = OrderState.UNKNOWN;
+    }
+    return true;
+  }
+
+  /**
+   * Helper method that takes a removed edge off the edge count and the counts of weighted and
+   * negative edges.
+   *
+   * @param weight weight of the removed edge
+   */
+  private void uncountEdge(double weight) {
+    edgeCount--;
+    if (weight != Edge.DEFAULT_WEIGHT) {
+      weightedEdgeCount--;
+      if (weight < 0) {
+        negativeWeightCount--;
+      }
+    }
+  }
+
+  /**
+   * Helper method that counts the edges arriving at a vertex from other verticies.
+   *
+   * @param id id of the vertex
+   * @return int number of incoming edges that are not a self-loop
+   */
+  private int sourceInDegree(int id) {
+    int loops = edgeKeys.contains(id, id) ? 1 : 0;
+    return reverseAdjacencyRows.get(id).size() - loops;
+  }
+
+  /**
+   * Helper method that finds a topological order of the whole graph, ignoring self-loops, with
+   * Kahn's algorithm over the adjacency rows in O(V + E). If some verticies are left over, they lie
+   * on a cycle and the graph is marked as cyclic instead.
+   */
+  private void findTopologicalOrder() {
+    int[] inDegrees = new int[nextVertexId];
+    int[] queue = new int[vertexIds.size()];
+    int tail = 0;
+    for (int id = 0; id < nextVertexId; id++) {
+      if (verticiesById.get(id) != null) {
+        inDegrees[id] = sourceInDegree(id);
+        if (inDegrees[id] == 0) {
+          queue[tail++] = id;
         }
       }
     }
-    return true;
+
+    for (int head = 0; head < tail; head++) {
+      int id = queue[head];
+      topologicalOrder[id] = head;
+      IdRow row = adjacencyRows.get(id);
+      for (int position = 0; position < row.size(); position++) {
+        int destination = row.get(position);
+        if (destination != id && --inDegrees[destination] == 0) {
+          queue[tail++] = destination;
+        }
+      }
+    }
+
+    nextOrder = tail;
+    orderState = tail == queue.length ? OrderState.ORDERED : OrderState.CYCLIC;
+  }
+
+  /**
+   * Helper method that repairs the topological order after an edge is added from a vertex to one
+   * that is earlier in the order, with the algorithm of Pearce and Kelly. Only the verticies
+   * ordered between the two ends of the edge are searched: those the destination reaches and those
+   * that reach the source. The source side then takes the lowest of their positions and the
+   * destination side the rest, each keeping its own order, so every other vertex stays where it
+   * is. If the destination reaches the source, the edge closes a cycle and the order is dropped.
+   *
+   * @param sourceId id of the vertex the new edge leaves from
+   * @param destinationId id of the vertex the new edge arrives at
+   */
+  private void restoreOrder(int sourceId, int destinationId) {
+    long[] forward = searchOrder(destinationId, topologicalOrder[sourceId], true);
+    if (forward == null) {
+      orderState = OrderState.CYCLIC;
+      return;
+    }
+    long[] backward = searchOrder(sourceId, topologicalOrder[destinationId], false);
+
+    int[] positions = new int[backward.length + forward.length];
+    int count = 0;
+    for (long entry : backward) {
+      positions[count++] = (int) (entry >>> 32);
+    }
+    for (long entry : forward) {
+      positions[count++] = (int) (entry >>> 32);
+    }
+    Arrays.sort(positions);
+
+    count = 0;
+    for (long entry : backward) {
+      topologicalOrder[(int) entry] = positions[count++];
+    }
+    for (long entry : forward) {
+      topologicalOrder[(int) entry] = positions[count++];
+    }
+  }
+
+  /**
+   * Helper method that searches from a vertex through the verticies on one side of a position in
+   * the topological order.
+   *
+   * @param start id of the vertex to search from
+   * @param bound position the search stays before when going forward, and after when going back
+   * @param forward true to follow edges forward, false to follow them backward
+   * @return each vertex found, including start, packed as its position in the high 32 bits and its
+   *     id in the low 32 bits and sorted by position, or null if a forward search reached the
+   *     vertex at the bound
+   */
+  private long[] searchOrder(int start, int bound, boolean forward) {
+    ArrayList<IdRow> rows = forward ? adjacencyRows : reverseAdjacencyRows;
+    int mark = ++searchCount;
+    int[] stack = new int[16];
+    int size = 0;
+    long[] found = new long[16];
+    int count = 0;
+
+    searchMarks[start] = mark;
+    stack[size++] = start;
+    while (size > 0) {
+      int id = stack[--size];
+      if (count == found.length) {
+        found = Arrays.copyOf(found, count * 2);
+      }
+      found[count++] = ((long) topologicalOrder[id] << 32) | id;
+
+      IdRow row = rows.get(id);
+      for (int position = 0; position < row.size(); position++) {
+        int next = row.get(position);
+        int order = topologicalOrder[next];
+        if (searchMarks[next] == mark || (forward ? order > bound : order < bound)) {
+          continue;
+        }
+        if (order == bound) {
+          return null;
+        }
+        searchMarks[next] = mark;
+        if (size == stack.length) {
+          stack = Arrays.copyOf(stack, size * 2);
+        }
+        stack[size++] = next;
+      }
+    }
+
+    long[] sorted = Arrays.copyOf(found, count);
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  /**
+   * Helper method that gets the weight of an edge in the graph, with a scan of the row of its
+   * source.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return weight of the edge
+   */
+  private double edgeWeight(T source, T destination) {
+    IdRow row = adjacencyRows.get(vertexIds.get(source));
+    return row.weight(row.indexOf(vertexIds.get(destination)));
+  }
+
+  /**
+   * Helper method that answers a query from the state the graph maintains itself, recording it
+   * like the queries of a snapshot.
+   *
+   * @param name name of the query
+   * @param body computes the result of the query
+   * @return result of the query
+   */
+  private <R> R query(String name, Supplier<R> body) {
+    return GraphSnapshot.timeQuery(name, vertexIds.size(), edgeCount, body);
+  }
+
+  /** Helper method that marks the lazily built snapshot as out of date after a mutation. */
+  private void invalidate() {
+    snapshot = null;
+  }
+
+  /**
+   * Freezes the current state of the graph into an immutable snapshot that answers the same
+   * queries. The snapshot is built on first use and reused until the graph is next changed. Queries
+   * that the counters of the graph answer, such as {@link #isReflexive()}, never build one, and
+   * every other query method of this class delegates to it. A graph must not be changed while
+   * another thread uses it, but its snapshot can be queried by any number of threads at once, even
+   * while the graph goes on to be changed.
+   *
+   * @return snapshot of the current graph
+   */
+  public GraphSnapshot<T> snapshot() {
+    GraphEngineStats.getInstance().recordCacheLookup(snapshot != null);
+    if (snapshot == null) {
+      snapshot =
+          new GraphSnapshot<T>(
+              buildIndex(), comparator, selfLoopCount, mutualEdgeCount, negativeWeightCount);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Helper method that numbers the verticies in their total order and copies the adjacency rows
+   * into a new index under those numbers.
+   *
+   * @return index of the current graph
+   */
+  @SuppressWarnings("unchecked")
+  private GraphIndex<T> buildIndex() {
+    Object[] sorted = vertexIds.keySet().toArray();
+    Arrays.sort(sorted, (a, b) -> comparator.compare((T) a, (T) b));
+    int[] positions = new int[nextVertexId];
+    for (int position = 0; position < sorted.length; position++) {
+      positions[vertexIds.get((T) sorted[position])] = position;
+    }
+
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    double[] weights = weightedEdgeCount == 0 ? null : new double[edgeCount];
+    int edge = 0;
+    for (int id = 0; id < nextVertexId; id++) {
+      IdRow row = adjacencyRows.get(id);
+      for (int position = 0; row != null && position < row.size(); position++) {
+        sources[edge] = positions[id];
+        targets[edge] = positions[row.get(position)];
+        if (weights != null) {
+          weights[edge] = row.weight(position);
+        }
+        edge++;
+      }
+    }
+    return new GraphIndex<T>(
+        VertexDictionary.create(sorted, storage), sources, targets, weights, storage);
+  }
+
+  /**
+   * Checks if a vertex is in the graph.
+   *
+   * @param vertex vertex to look for
+   * @return true if the vertex is in the graph, false otherwise
+   */
+  public boolean containsVertex(T vertex) {
+    return vertexIds.containsKey(vertex);
+  }
+
+  /**
+   * Checks if there is a path of edges from one vertex to another. Every vertex can reach itself.
+   * The first query builds a reachability index over the condensation of the graph, after which
+   * each query takes constant time on small graphs and a pruned search on large graphs.
+   *
+   * @param source vertex the path leaves from
+   * @param destination vertex the path arrives at
+   * @return true if destination can be reached from source, false otherwise, including when
+   *     either vertex is not in the graph
+   */
+  public boolean isReachable(T source, T destination) {
+    return snapshot().isReachable(source, destination);
+  }
+
+  /**
+   * The length of the shortest weighted path from a vertex to every vertex it can reach, found with
+   * Dijkstra's algorithm. Every edge weight must be non-negative.
+   *
+   * @param source vertex the paths leave from
+   * @return Map of each reachable vertex in numerical order to its distance from source, empty if
+   *     source is not in the graph
+   * @throws IllegalStateException if the graph has a negative edge weight
+   */
+  public Map<T, Double> getShortestDistances(T source) {
+    return snapshot().getShortestDistances(source);
+  }
+
+  /**
+   * The number of edges on a shortest path from each of several vertices to every vertex it can
+   * reach. Each edge is scanned once per level for up to 64 sources together, rather than once
+   * per source.
+   *
+   * @param sources vertices the paths leave from
+   * @return Map of each source in the given order to a map of each vertex it reaches, in numerical
+   *     order, to its distance from the source, which is empty for a source not in the graph
+   */
+  public Map<T, Map<T, Integer>> getHopDistances(List<T> sources) {
+    return snapshot().getHopDistances(sources);
+  }
+
+  /**
+   * Every vertex that can be reached from any of several vertices. Only the set is found, with no
+   * search order, so the search runs in parallel tasks that visit vertices in any order.
+   *
+   * @param sources vertices the paths leave from, where those not in the graph are ignored
+   * @return List of the reachable vertices in numerical order, including the sources
+   */
+  public List<T> getReachableFrom(List<T> sources) {
+    return snapshot().getReachableFrom(sources);
+  }
+
+  /**
+   * The shortest weighted path between two vertices, found with Dijkstra's algorithm which stops as
+   * soon as the destination is reached. Every edge weight must be non-negative.
+   *
+   * @param source vertex the path leaves from
+   * @param destination vertex the path arrives at
+   * @return List of vertices along the path from source to destination, empty if there is no path
+   *     or either vertex is not in the graph
+   * @throws IllegalStateException if the graph has a negative edge weight
+   */
+  public List<T> getShortestWeightedPath(T source, T destination) {
+    return snapshot().getShortestWeightedPath(source, destination);
+  }
+
+  /**
+   * The shortest path between two vertices by number of edges, ignoring weights. A bidirectional
+   * breadth first search grows frontiers from both vertices and stops when they meet, so it usually
+   * visits far fewer vertices than a full search from the source.
+   *
+   * @param source vertex the path leaves from
+   * @param destination vertex the path arrives at
+   * @return List of vertices along the path from source to destination, empty if there is no path
+   *     or either vertex is not in the graph
+   */
+  public List<T> getShortestPath(T source, T destination) {
+    return snapshot().getShortestPath(source, destination);
+  }
+
+  /**
+   * The roots of the graph are vertices that are not the destination of any edge (apart from
+   * self-loops). When vertices can reach each other through a cycle, their strongly connected
+   * component is a root if no edge from outside the component arrives at it, and the minimum vertex
+   * of the component is returned. This covers each class of an equivalence relation.
+   *
+   * <p>The graph keeps the set of vertices with no incoming edge up to date as edges change, and
+   * these are exactly the roots while the graph has no cycle. Whether it has one is tracked with a
+   * topological order that is found once in O(V + E) and then repaired after each edge that goes
+   * against it, so an acyclic graph answers in time proportional to its roots however it changes.
+   * A cyclic graph finds its roots from the strongly connected components of a snapshot.
+   *
+   * @return set of root vertices
+   */
+  public Set<T> getRoots() {
+    if (orderState == OrderState.UNKNOWN) {
+      findTopologicalOrder();
+    }
+    if (orderState == OrderState.CYCLIC) {
+      return snapshot().getRoots();
+    }
+
+    return query(
+        "getRoots",
+        () -> {
+          Set<T> roots = new TreeSet<T>(comparator);
+          for (int id = sourceIds.nextSetBit(0); id >= 0; id = sourceIds.nextSetBit(id + 1)) {
+            roots.add(verticiesById.get(id));
+          }
+          return roots;
+        });
+  }
+
+  /**
+   * Checks if the graph keeps its roots up to date itself, which it does while it has no cycle
+   * through more than one vertex. Otherwise {@link #getRoots()} has to build a snapshot.
+   *
+   * @return true if the roots can be read without a snapshot, false otherwise
+   */
+  public boolean hasMaintainedRoots() {
+    if (orderState == OrderState.UNKNOWN) {
+      findTopologicalOrder();
+    }
+    return orderState == OrderState.ORDERED;
+  }
+
+  /**
+   * The strongly connected components of the graph, where every vertex in a component can reach
+   * every other vertex in it. Components are ordered by their minimum vertex.
+   *
+   * @return List of components, each a set of vertices in numerical order
+   */
+  public List<Set<T>> getStronglyConnectedComponents() {
+    return snapshot().getStronglyConnectedComponents();
+  }
+
+  /**
+   * The condensation of the graph, which is acyclic. Each strongly connected component is
+   * represented by its minimum vertex, and maps to the representatives of the components its edges
+   * arrive at.
+   *
+   * @return Map of representative vertex to the set of representatives it has an edge to
+   */
+  public Map<T, Set<T>> getCondensation() {
+    return snapshot().getCondensation();
+  }
+
+  /**
+   * Checks if the graph has no cycles, including self-loops.
+   *
+   * @return true if the graph is acyclic, false otherwise
+   */
+  public boolean isAcyclic() {
+    return snapshot().isAcyclic();
+  }
+
+  /**
+   * Finds a cycle in the graph, which proves it is not acyclic. Vertices and their edges are
+   * searched in numerical order, so the same cycle is found every time.
+   *
+   * @return List of vertices on the cycle in order, each with an edge to the next and the last with
+   *     an edge to the first, or an empty list if the graph is acyclic
+   */
+  public List<T> findCycle() {
+    return snapshot().findCycle();
+  }
+
+  /**
+   * A topological order of the graph split into layers, where every edge goes from an earlier layer
+   * to a later one. Layer 0 holds the vertices that no edge arrives at, and each later layer holds
+   * the vertices whose incoming edges all leave earlier layers. Vertices in a layer are in
+   * numerical order, and concatenating the layers gives a topological order of the whole graph.
+   *
+   * @return List of layers, each a list of vertices in numerical order
+   * @throws IllegalStateException if the graph has a cycle
+   */
+  public List<List<T>> getTopologicalLayers() {
+    return snapshot().getTopologicalLayers();
+  }
+
+  /**
+   * For all vertices, vertex -> vertex (self-loop) must exist for this graph to be reflexive. Edges
+   * are never duplicated, so this holds exactly when there is one self-loop per vertex.
+   *
+   * @return boolean value - true if the graph is reflexive, false if not reflexive
+   */
+  public boolean isReflexive() {
+    return query("isReflexive", () -> selfLoopCount == vertexIds.size());
+  }
+
+  /**
+   * If vertex1 -> vertex2, then vertex2 -> vertex1 must exist for this graph to be symmetric. This
+   * holds exactly when every edge that is not a self-loop has its reverse edge in the graph.
+   *
+   * @return boolean value - true if the graph is symmetric, false if not symmetric
+   */
+  public boolean isSymmetric() {
+    return query("isSymmetric", () -> mutualEdgeCount == edgeCount - selfLoopCount);
   }
 
   /**
@@ -125,53 +923,98 @@ public class Graph<T extends Comparable<T>> {
    * @return boolean value - true if the graph is transitive, false if not transitive
    */
   public boolean isTransitive() {
-    for (T vertex1 : verticies) {
-      for (T vertex2 : verticies) {
-        for (T vertex3 : verticies) {
-          // if a -> b and b -> c and a -> c does not exist, return false
-          if (adjacencyMap.get(vertex1).contains(vertex2)
-              && adjacencyMap.get(vertex2).contains(vertex3)
-              && !adjacencyMap.get(vertex1).contains(vertex3)) {
-            return false;
-          }
-        }
-      }
-    }
-    // If all cases satsify transitivity, the whole graph is transitive so return true
-    return true;
+    return snapshot().isTransitive();
   }
 
   /**
    * If vertex1 -> vertex2 and vertex2 -> vertex1 then vertex1 must equal vertex2 for this graph to
-   * be antisymmetric.
+   * be antisymmetric. This holds exactly when no edge other than a self-loop has its reverse edge
+   * in the graph.
    *
    * @return boolean value - true if the graph is antisymmetric, false if not antisymmetric
    */
   public boolean isAntiSymmetric() {
-    for (T vertex1 : verticies) {
-      for (T vertex2 : verticies) {
-        // if a -> b and b -> c and a != c, return false
-        if (adjacencyMap.get(vertex1).contains(vertex2)
-            && adjacencyMap.get(vertex2).contains(vertex1)
-            && vertex1 != vertex2) {
-          return false;
-        }
-      }
-    }
-    // If all cases satsify antisymmetry, the whole graph is antisymmetric so return true
-    return true;
+    return query("isAntiSymmetric", () -> mutualEdgeCount == 0);
   }
 
   /**
-   * If the graph is reflexive, symmetric and transitive, then it is an equivalence relation.
+   * If the graph is reflexive, symmetric and transitive, then it is an equivalence relation. Only
+   * transitivity needs a snapshot, so a graph that fails either cheaper check never builds one.
    *
    * @return boolean value - true if the graph is equivalent , false if not equivalent
    */
   public boolean isEquivalence() {
-    if (isReflexive() && isSymmetric() && isTransitive()) {
-      return true;
-    }
-    return false;
+    return query(
+        "isEquivalence", () -> isReflexive() && isSymmetric() && snapshot().isTransitive());
+  }
+
+  /**
+   * Evaluates reflexivity, symmetry, transitivity, antisymmetry and equivalence together in a
+   * single pass over the edges, which is cheaper than checking each property on its own.
+   *
+   * @return the relation properties of the graph
+   */
+  public RelationProperties getRelationProperties() {
+    return snapshot().getRelationProperties();
+  }
+
+  /**
+   * Counts the in-degree and out-degree of every vertex in one parallel pass, along with the
+   * maximum degrees, isolated verticies and density of the graph.
+   *
+   * @return the degree statistics of the graph
+   */
+  public DegreeStatistics getDegreeStatistics() {
+    return snapshot().getDegreeStatistics();
+  }
+
+  /**
+   * Ranks every vertex of the graph by PageRank, with a damping factor of 0.85, spreading the rank
+   * of vertices with no outgoing edges evenly over every vertex.
+   *
+   * @return PageRank scores of the graph and the iterations taken to converge
+   */
+  public PageRank getPageRank() {
+    return snapshot().getPageRank();
+  }
+
+  /**
+   * The vertices with the highest PageRank, breaking ties numerically.
+   *
+   * @param k largest number of vertices to return
+   * @return up to k vertices mapped to their PageRank, from the highest down
+   */
+  public Map<T, Double> getTopPageRank(int k) {
+    return snapshot().getTopPageRank(k);
+  }
+
+  /**
+   * The vertices with the highest degree centrality, breaking ties numerically.
+   *
+   * @param k largest number of vertices to return
+   * @return up to k vertices mapped to their degree centrality, from the highest down
+   */
+  public Map<T, Double> getTopDegreeCentrality(int k) {
+    return snapshot().getTopDegreeCentrality(k);
+  }
+
+  /**
+   * Compresses the adjacency lists of the graph into gap-encoded variable-length integers.
+   *
+   * @return the compressed adjacency of the graph
+   */
+  public CompressedAdjacency getCompressedAdjacency() {
+    return snapshot().getCompressedAdjacency();
+  }
+
+  /**
+   * Compresses the adjacency lists of the graph with the verticies relabelled in a given order.
+   *
+   * @param ordering order to label the verticies in
+   * @return the compressed adjacency of the graph in that order
+   */
+  public CompressedAdjacency compressAdjacency(VertexOrdering ordering) {
+    return snapshot().compressAdjacency(ordering);
   }
 
   /**
@@ -182,17 +1025,59 @@ public class Graph<T extends Comparable<T>> {
    * @return Set of vertices in the equivalence class
    */
   public Set<T> getEquivalenceClass(T vertex) {
-    Set<T> equivalenceClass = new HashSet<T>();
-
-    // Set needs to have an Equivalence relation to have equivalence classes
-    if (!isEquivalence()) {
-      return equivalenceClass;
-    } else {
-      for (int i = 0; i < adjacencyMap.get(vertex).size(); i++) {
-        equivalenceClass.add(adjacencyMap.get(vertex).get(i));
-      }
-      return equivalenceClass;
-    }
+    return snapshot().getEquivalenceClass(vertex);
+  }
+
+  /**
+   * The transitive closure of the graph, which has an edge wherever the graph has a path of one or
+   * more edges. It is built once from the condensation with bitset rows, after which {@link
+   * #isTransitive()} compares the graph against it.
+   *
+   * @return Map of each vertex with closure edges, in numerical order, to the vertices it has
+   *     closure edges to
+   */
+  public Map<T, Set<T>> getTransitiveClosure() {
+    return snapshot().getTransitiveClosure();
+  }
+
+  /**
+   * Number of edges in the transitive closure of the graph.
+   *
+   * @return long number of closure edges
+   */
+  public long getClosureEdgeCount() {
+    return snapshot().getClosureEdgeCount();
+  }
+
+  /**
+   * The weakly connected components of the graph, where every vertex in a component is connected
+   * to every other vertex in it when the direction of edges is ignored. Components are ordered by
+   * their minimum vertex.
+   *
+   * @return List of components, each a set of vertices in numerical order
+   */
+  public List<Set<T>> getWeaklyConnectedComponents() {
+    return snapshot().getWeaklyConnectedComponents();
+  }
+
+  /**
+   * Conducts the same breadth first search as {@link #iterativeBreadthFirstSearch()}, with the
+   * weakly connected components searched in parallel.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> parallelBreadthFirstSearch() {
+    return snapshot().parallelBreadthFirstSearch();
+  }
+
+  /**
+   * Conducts the same depth first search as {@link #iterativeDepthFirstSearch()}, with the weakly
+   * connected components searched in parallel.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> parallelDepthFirstSearch() {
+    return snapshot().parallelDepthFirstSearch();
   }
 
   /**
@@ -202,37 +1087,7 @@ public class Graph<T extends Comparable<T>> {
    * @return List of vertices in order of visited
    */
   public List<T> iterativeBreadthFirstSearch() {
-    List<T> visited = new ArrayList<T>();
-    List<T> nodesAtCurrentDepth = new ArrayList<T>();
-    Queue<T> queue = new Queue<T>();
-    T current;
-
-    for (T root : getRoots()) {
-      queue.enqueue(root);
-      visited.add(root);
-
-      while (!queue.isEmpty()) {
-        current = queue.dequeue();
-        for (T neighbour : verticies) {
-          if (adjacencyMap.get(current).contains(neighbour)) {
-            if (!visited.contains(neighbour)) {
-              nodesAtCurrentDepth.add(neighbour);
-            }
-          }
-        }
-        // Nodes at the same search depth should be visited in numerical order
-        // Comparator sorts numerically rather than the default lexicographically
-        Collections.sort(nodesAtCurrentDepth, comparator);
-        visited.addAll(nodesAtCurrentDepth);
-
-        // queue the sorted nodes at the same search depth
-        for (T node : nodesAtCurrentDepth) {
-          queue.enqueue(node);
-        }
-        nodesAtCurrentDepth.clear();
-      }
-    }
-    return visited;
+    return snapshot().iterativeBreadthFirstSearch();
   }
 
   /**
@@ -243,37 +1098,7 @@ public class Graph<T extends Comparable<T>> {
    * @return List of vertices in order of visited
    */
   public List<T> iterativeDepthFirstSearch() {
-    List<T> visited = new ArrayList<T>();
-    List<T> nodesAtCurrentDepth = new ArrayList<T>();
-    Stack<T> stack = new Stack<T>();
-    T current;
-
-    for (T root : getRoots()) {
-      stack.push(root);
-
-      while (!stack.isEmpty()) {
-        current = stack.pop();
-        if (!visited.contains(current)) {
-          visited.add(current);
-          for (T neighbour : verticies) {
-            if (adjacencyMap.get(current).contains(neighbour)) {
-              nodesAtCurrentDepth.add(neighbour);
-            }
-          }
-          // Nodes at the same search depth should be visited in numerical order, but need to
-          // reverse for the nature of the stack data structure
-          Collections.sort(nodesAtCurrentDepth, comparator);
-          Collections.reverse(nodesAtCurrentDepth);
-
-          // stack the sorted nodes at the same search depth
-          for (T node : nodesAtCurrentDepth) {
-            stack.push(node);
-          }
-          nodesAtCurrentDepth.clear();
-        }
-      }
-    }
-    return visited;
+    return snapshot().iterativeDepthFirstSearch();
   }
 
   /**
@@ -283,15 +1108,7 @@ public class Graph<T extends Comparable<T>> {
    * @return List of vertices in order of visited
    */
   public List<T> recursiveBreadthFirstSearch() {
-    List<T> visited = new ArrayList<T>();
-    Queue<T> queue = new Queue<T>();
-
-    for (T root : getRoots()) {
-      queue.enqueue(root);
-      visited.add(root);
-      recursiveBfs(root, queue, visited); // Call the recursive function
-    }
-    return visited;
+    return snapshot().recursiveBreadthFirstSearch();
   }
 
   /**
@@ -304,8 +1121,8 @@ public class Graph<T extends Comparable<T>> {
 
     while (!queue.isEmpty()) {
       current = queue.dequeue();
-      for (T neighbour : verticies) {
-        if (adjacencyMap.get(current).contains(neighbour)) {
+      for (T neighbour : vertexIds.keySet()) {
+        if (hasEdge(current, neighbour)) {
           if (!visited.contains(neighbour)) {
             nodesAtCurrentDepth.add(neighbour);
           }
@@ -334,14 +1151,7 @@ public class Graph<T extends Comparable<T>> {
    * @return List of vertices in order of visited
    */
   public List<T> recursiveDepthFirstSearch() {
-    List<T> visited = new ArrayList<T>();
-    Stack<T> stack = new Stack<T>();
-
-    for (T root : getRoots()) {
-      stack.push(root);
-      recursiveDfs(root, stack, visited); // Call the recursive function
-    }
-    return visited;
+    return snapshot().recursiveDepthFirstSearch();
   }
 
   /**
@@ -357,8 +1167,8 @@ public class Graph<T extends Comparable<T>> {
       current = stack.pop();
       if (!visited.contains(current)) {
         visited.add(current);
-        for (T neighbour : verticies) {
-          if (adjacencyMap.get(current).contains(neighbour)) {
+        for (T neighbour : vertexIds.keySet()) {
+          if (hasEdge(current, neighbour)) {
             nodesAtCurrentDepth.add(neighbour);
           }
         }
@@ -377,20 +1187,28 @@ public class Graph<T extends Comparable<T>> {
   }
 
   /**
-   * Iteratively goes through all edges and finds all destination vertices with the parameterised
-   * vertex as the source.
+   * Finds all destination vertices with the parameterised vertex as the source. The returned list
+   * is a copy, so changing it does not change the graph.
    *
    * @param vertex vertex to find neighbour vertices from
    * @return Set of destination vertices of vertex in parameter
    */
   public LinkedList<T> destinationsWithSameSourceVertex(T vertex) {
     LinkedList<T> destinationsWithSameSourceVertex = new LinkedList<T>();
-
-    for (Edge<T> edge : edges) {
-      if (edge.getSource().equals(vertex)) {
-        destinationsWithSameSourceVertex.append(edge.getDestination());
-      }
+    IdRow row = adjacencyRows.get(vertexIds.get(vertex));
+    for (int position = 0; position < row.size(); position++) {
+      destinationsWithSameSourceVertex.append(verticiesById.get(row.get(position)));
     }
     return destinationsWithSameSourceVertex;
   }
+
+  /** What is known about the topological order of the graph. */
+  private enum OrderState {
+    // No order has been found since the graph was built or a cycle was broken
+    UNKNOWN,
+    // The order is up to date, so the graph has no cycle other than self-loops
+    ORDERED,
+    // The graph has a cycle through more than one vertex
+    CYCLIC
+  }
 }
@@ -0,0 +1,340 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Read-only index of a graph that numbers the verticies 0 to n - 1 in their total order and stores
+ * the edges as primitive arrays in compressed sparse row (CSR) form, for both the forward and the
+ * reverse direction. The edges leaving vertex v are the targets from {@link #start(int)} up to
+ * {@link #end(int)}, sorted by id, so algorithms can run over ints without boxing or hashing. Edge
+ * weights are kept in a double array parallel to the targets, which is only allocated if some edge
+ * has a weight other than {@link Edge#DEFAULT_WEIGHT}.
+ *
+ * <p>The arrays are int and double buffers, which are either backed by heap arrays or are direct
+ * buffers outside the heap, as chosen by the {@link GraphStorage} of the index. The index is never
+ * written after it is built and only uses absolute reads, so threads can read it at once.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class GraphIndex<T> {
+  private final GraphStorage storage;
+  private final VertexDictionary<T> dictionary;
+  private final IntBuffer offsets;
+  private final IntBuffer targets;
+  private final DoubleBuffer weights;
+  private final IntBuffer reverseOffsets;
+  private final IntBuffer sources;
+
+  /**
+   * Builds an index straight from the verticies and edges of a graph, with no {@link Graph} in
+   * between, so the only copy of the graph is the one in the storage of the index, apart from
+   * arrays of edge ids that are dropped once it is built. An edge that appears more than once is
+   * kept once, with the weight it first appears with.
+   *
+   * @param verticies every vertex of the graph
+   * @param edges every edge of the graph, each between two of the verticies
+   * @param comparator total order of the verticies that decides their ids
+   * @param storage where to keep the arrays of the index
+   * @return index of the graph
+   * @throws IllegalArgumentException if an edge leaves or arrives at a vertex that is not given
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> GraphIndex<T> create(
+      Collection<T> verticies,
+      Collection<Edge<T>> edges,
+      Comparator<T> comparator,
+      GraphStorage storage) {
+    Object[] sorted = verticies.toArray();
+    Arrays.sort(sorted, (a, b) -> comparator.compare((T) a, (T) b));
+    VertexDictionary<T> dictionary = VertexDictionary.create(sorted, storage);
+
+    EdgeKeySet seen = new EdgeKeySet(edges.size());
+    int[] sources = new int[edges.size()];
+    int[] targets = new int[edges.size()];
+    double[] weights = new double[edges.size()];
+    boolean weighted = false;
+    int count = 0;
+    for (Edge<T> edge : edges) {
+      int source = dictionary.getId(edge.getSource());
+      int target = dictionary.getId(edge.getDestination());
+      if (source < 0 || target < 0) {
+        throw new IllegalArgumentException(
+            "Edge " + edge.getSource() + " -> " + edge.getDestination() + " leaves the graph");
+      }
+      if (seen.add(source, target)) {
+        sources[count] = source;
+        targets[count] = target;
+        weights[count] = edge.getWeight();
+        weighted |= edge.getWeight() != Edge.DEFAULT_WEIGHT;
+        count++;
+      }
+    }
+
+    if (count < sources.length) {
+      sources = Arrays.copyOf(sources, count);
+      targets = Arrays.copyOf(targets, count);
+      weights = Arrays.copyOf(weights, count);
+    }
+    return new GraphIndex<T>(dictionary, sources, targets, weighted ? weights : null, storage);
+  }
+
+  /**
+   * Builds the index from arrays of edges in time linear in the size of the graph, with a counting
+   * sort of the edges by source and then by destination. No edge may appear twice.
+   *
+   * @param dictionary ids of the verticies in their total order, in the same storage
+   * @param edgeSources id of the vertex each edge leaves from
+   * @param edgeTargets id of the vertex each edge arrives at
+   * @param edgeWeights weight of each edge, or null if every edge has the default weight
+   * @param storage where to keep the arrays of the index
+   */
+  GraphIndex(
+      VertexDictionary<T> dictionary,
+      int[] edgeSources,
+      int[] edgeTargets,
+      double[] edgeWeights,
+      GraphStorage storage) {
+    this.storage = storage;
+    this.dictionary = dictionary;
+
+    // Count the edges leaving and arriving at each vertex, then prefix sum into row offsets
+    int vertexCount = dictionary.size();
+    int edgeCount = edgeSources.length;
+    int[] outDegrees = new int[vertexCount + 1];
+    int[] inDegrees = new int[vertexCount + 1];
+    for (int edge = 0; edge < edgeCount; edge++) {
+      outDegrees[edgeSources[edge] + 1]++;
+      inDegrees[edgeTargets[edge] + 1]++;
+    }
+    for (int id = 0; id < vertexCount; id++) {
+      outDegrees[id + 1] += outDegrees[id];
+      inDegrees[id + 1] += inDegrees[id];
+    }
+    offsets = storage.storeInts(outDegrees);
+    reverseOffsets = storage.storeInts(inDegrees);
+
+    // Order the edges by source, so that each reverse row below is filled already sorted
+    int[] bySource = new int[edgeCount];
+    int[] fill = Arrays.copyOf(outDegrees, vertexCount);
+    for (int edge = 0; edge < edgeCount; edge++) {
+      bySource[fill[edgeSources[edge]]++] = edge;
+    }
+
+    sources = storage.allocateInts(edgeCount);
+    double[] reverseWeights = edgeWeights == null ? null : new double[edgeCount];
+    System.arraycopy(inDegrees, 0, fill, 0, vertexCount);
+    for (int edge : bySource) {
+      int reverseEdge = fill[edgeTargets[edge]]++;
+      sources.put(reverseEdge, edgeSources[edge]);
+      if (reverseWeights != null) {
+        reverseWeights[reverseEdge] = edgeWeights[edge];
+      }
+    }
+
+    // Reading the sorted reverse rows in increasing destination order fills each forward row sorted
+    targets = storage.allocateInts(edgeCount);
+    weights = reverseWeights == null ? null : storage.allocateDoubles(edgeCount);
+    System.arraycopy(outDegrees, 0, fill, 0, vertexCount);
+    for (int id = 0; id < vertexCount; id++) {
+      for (int reverseEdge = inDegrees[id]; reverseEdge < inDegrees[id + 1]; reverseEdge++) {
+        int edge = fill[sources.get(reverseEdge)]++;
+        targets.put(edge, id);
+        if (weights != null) {
+          weights.put(edge, reverseWeights[reverseEdge]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets where the arrays of the index are kept.
+   *
+   * @return storage of the index
+   */
+  public GraphStorage getStorage() {
+    return storage;
+  }
+
+  /**
+   * Creates an empty set of visited verticies, which is kept on the heap whatever the storage of
+   * the index.
+   *
+   * @return visited set with room for every vertex
+   */
+  public VisitedSet newVisitedSet() {
+    return new VisitedSet(vertexCount());
+  }
+
+  /**
+   * Number of verticies in the index.
+   *
+   * @return int number of verticies
+   */
+  public int vertexCount() {
+    return dictionary.size();
+  }
+
+  /**
+   * Number of edges in the index.
+   *
+   * @return int number of edges
+   */
+  public int edgeCount() {
+    return targets.capacity();
+  }
+
+  /**
+   * Gets the id of a vertex.
+   *
+   * @param vertex vertex to find the id of
+   * @return id of the vertex, or -1 if the vertex is not in the graph
+   */
+  public int getId(T vertex) {
+    return dictionary.getId(vertex);
+  }
+
+  /**
+   * Gets the vertex with the given id.
+   *
+   * @param id id of the vertex
+   * @return T value of the vertex
+   */
+  public T getVertex(int id) {
+    return dictionary.getVertex(id);
+  }
+
+  /**
+   * Position of the first edge leaving a vertex.
+   *
+   * @param id id of the source vertex
+   * @return index of the first edge to pass to {@link #target(int)}
+   */
+  public int start(int id) {
+    return offsets.get(id);
+  }
+
+  /**
+   * Position after the last edge leaving a vertex.
+   *
+   * @param id id of the source vertex
+   * @return index after the last edge to pass to {@link #target(int)}
+   */
+  public int end(int id) {
+    return offsets.get(id + 1);
+  }
+
+  /**
+   * Gets the destination of an edge.
+   *
+   * @param edge index of the edge
+   * @return id of the destination vertex
+   */
+  public int target(int edge) {
+    return targets.get(edge);
+  }
+
+  /**
+   * Finds the edge between two verticies with a binary search of the sorted row of the source.
+   *
+   * @param source id of the vertex the edge leaves from
+   * @param destination id of the vertex the edge arrives at
+   * @return index of the edge, or -1 if there is no such edge
+   */
+  public int findEdge(int source, int destination) {
+    int low = offsets.get(source);
+    int high = offsets.get(source + 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int target = targets.get(middle);
+      if (target < destination) {
+        low = middle + 1;
+      } else if (target > destination) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the weight of an edge.
+   *
+   * @param edge index of the edge
+   * @return weight of the edge
+   */
+  public double weight(int edge) {
+    return weights == null ? Edge.DEFAULT_WEIGHT : weights.get(edge);
+  }
+
+  /**
+   * Position of the first edge arriving at a vertex.
+   *
+   * @param id id of the destination vertex
+   * @return index of the first edge to pass to {@link #source(int)}
+   */
+  public int reverseStart(int id) {
+    return reverseOffsets.get(id);
+  }
+
+  /**
+   * Position after the last edge arriving at a vertex.
+   *
+   * @param id id of the destination vertex
+   * @return index after the last edge to pass to {@link #source(int)}
+   */
+  public int reverseEnd(int id) {
+    return reverseOffsets.get(id + 1);
+  }
+
+  /**
+   * Gets the source of an arriving edge.
+   *
+   * @param edge index of the edge in the reverse rows
+   * @return id of the source vertex
+   */
+  public int source(int edge) {
+    return sources.get(edge);
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the index, not counting the vertex values.
+   *
+   * @return approximate heap footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    long dictionaryBytes = dictionary.estimateHeapBytes();
+    return storage == GraphStorage.HEAP ? dictionaryBytes + arrayBytes() : dictionaryBytes;
+  }
+
+  /**
+   * Estimates the number of bytes the index uses outside the heap.
+   *
+   * @return approximate off-heap footprint in bytes
+   */
+  public long estimateOffHeapBytes() {
+    long dictionaryBytes = dictionary.estimateOffHeapBytes();
+    return storage == GraphStorage.OFF_HEAP ? dictionaryBytes + arrayBytes() : dictionaryBytes;
+  }
+
+  /**
+   * Helper method that counts the bytes of the offset, edge and weight arrays.
+   *
+   * @return size of the arrays in bytes
+   */
+  private long arrayBytes() {
+    // Two offsets per vertex, two ints per edge and a weight per edge if there are weights
+    long weightBytes = weights == null ? 0 : weights.capacity() * 8L;
+    return (offsets.capacity() + reverseOffsets.capacity()) * 4L
+        + (targets.capacity() + sources.capacity()) * 4L
+        + weightBytes;
+  }
+}
@@ -0,0 +1,1192 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import nz.ac.auckland.se281.metrics.GraphEngineStats;
+import nz.ac.auckland.se281.metrics.GraphQueryEvent;
+
+/**
+ * An immutable view of a graph at the moment it was taken, which answers every query of {@link
+ * Graph}. Changing the graph afterwards does not change the snapshot.
+ *
+ * <p>A snapshot is safe to share between threads without locking. Its index is built before the
+ * snapshot is published and never written again, and the components, reachability index and
+ * topological sort are built on first use and published with a compare-and-set, so every thread
+ * sees the same fully built instance. Two threads that race on the first use may both build one,
+ * but only the first to finish is kept. Every query allocates its own working state.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class GraphSnapshot<T extends Comparable<T>> {
+  // How many queries the current thread is inside, so nested queries are not counted twice
+  private static final ThreadLocal<int[]> QUERY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+  private final GraphIndex<T> index;
+  private final Comparator<T> comparator;
+  private final int selfLoopCount;
+  private final int mutualEdgeCount;
+  private final int negativeWeightCount;
+  // Derived state that is built on first use by whichever thread asks first
+  private final AtomicReference<StronglyConnectedComponents> components =
+      new AtomicReference<StronglyConnectedComponents>();
+  private final AtomicReference<WeaklyConnectedComponents> weakComponents =
+      new AtomicReference<WeaklyConnectedComponents>();
+  private final AtomicReference<TransitiveClosure> transitiveClosure =
+      new AtomicReference<TransitiveClosure>();
+  private final AtomicReference<ReachabilityIndex> reachability =
+      new AtomicReference<ReachabilityIndex>();
+  private final AtomicReference<TopologicalSort> topologicalSort =
+      new AtomicReference<TopologicalSort>();
+  private final AtomicReference<CycleDetector> cycleDetector =
+      new AtomicReference<CycleDetector>();
+  private final AtomicReference<EdgeKeySet> edgeKeys = new AtomicReference<EdgeKeySet>();
+  private final AtomicReference<RelationProperties> relationProperties =
+      new AtomicReference<RelationProperties>();
+  private final AtomicReference<DegreeStatistics> degreeStatistics =
+      new AtomicReference<DegreeStatistics>();
+  private final AtomicReference<CompressedAdjacency> compressedAdjacency =
+      new AtomicReference<CompressedAdjacency>();
+  private final AtomicReference<PageRank> pageRank = new AtomicReference<PageRank>();
+  private final AtomicReference<VertexScores> degreeCentrality =
+      new AtomicReference<VertexScores>();
+
+  /**
+   * Creates a snapshot from the index of a graph and the counters the graph keeps up to date.
+   *
+   * @param index primitive index of the graph, which must not be shared with a mutable graph
+   * @param comparator total order of the verticies
+   * @param selfLoopCount number of edges from a vertex to itself
+   * @param mutualEdgeCount number of edges, other than self-loops, whose reverse edge also exists
+   * @param negativeWeightCount number of edges with a negative weight
+   */
+  GraphSnapshot(
+      GraphIndex<T> index,
+      Comparator<T> comparator,
+      int selfLoopCount,
+      int mutualEdgeCount,
+      int negativeWeightCount) {
+    this.index = index;
+    this.comparator = comparator;
+    this.selfLoopCount = selfLoopCount;
+    this.mutualEdgeCount = mutualEdgeCount;
+    this.negativeWeightCount = negativeWeightCount;
+  }
+
+  /**
+   * Creates a snapshot of a graph that only exists as an index, counting the self-loops, mutual
+   * edges and negative weights that {@link Graph} keeps up to date as it changes. The reverse of
+   * each edge is found with a binary search of its row.
+   *
+   * @param index primitive index of the graph
+   * @param comparator total order of the verticies
+   * @return snapshot of the graph
+   */
+  static <T extends Comparable<T>> GraphSnapshot<T> of(
+      GraphIndex<T> index, Comparator<T> comparator) {
+    int selfLoopCount = 0;
+    int mutualEdgeCount = 0;
+    int negativeWeightCount = 0;
+    for (int source = 0; source < index.vertexCount(); source++) {
+      for (int edge = index.start(source); edge < index.end(source); edge++) {
+        int destination = index.target(edge);
+        if (destination == source) {
+          selfLoopCount++;
+        } else if (index.findEdge(destination, source) >= 0) {
+          mutualEdgeCount++;
+        }
+        if (index.weight(edge) < 0) {
+          negativeWeightCount++;
+        }
+      }
+    }
+    return new GraphSnapshot<T>(
+        index, comparator, selfLoopCount, mutualEdgeCount, negativeWeightCount);
+  }
+
+  /**
+   * Answers a query against this snapshot, recording its duration as a JFR event and in the engine
+   * statistics.
+   *
+   * @param name name of the query
+   * @param body computes the result of the query
+   * @return result of the query
+   */
+  private <R> R query(String name, Supplier<R> body) {
+    return timeQuery(name, index.vertexCount(), index.edgeCount(), body);
+  }
+
+  /**
+   * Answers a query against any graph, recording its duration as a JFR event and in the engine
+   * statistics, so that queries a graph answers without a snapshot are recorded the same way. Every
+   * query gets an event, but a query nested inside another one on the same thread is only counted
+   * in the statistics as part of the outer query.
+   *
+   * @param name name of the query
+   * @param vertexCount number of verticies in the graph
+   * @param edgeCount number of edges in the graph
+   * @param body computes the result of the query
+   * @return result of the query
+   */
+  static <R> R timeQuery(String name, int vertexCount, int edgeCount, Supplier<R> body) {
+    GraphQueryEvent event = new GraphQueryEvent();
+    event.begin();
+    long start = System.nanoTime();
+
+    int[] depth = QUERY_DEPTH.get();
+    depth[0]++;
+    R result;
+    try {
+      result = body.get();
+    } finally {
+      depth[0]--;
+    }
+
+    if (depth[0] == 0) {
+      GraphEngineStats.getInstance().recordQuery(System.nanoTime() - start);
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.query = name;
+      event.vertexCount = vertexCount;
+      event.edgeCount = edgeCount;
+      event.commit();
+    }
+    return result;
+  }
+
+  /**
+   * Helper method that gets a lazily built value, building and publishing it if no thread has yet.
+   *
+   * @param cache holds the value once it is built
+   * @param builder builds the value
+   * @return the value every thread sees
+   */
+  private static <V> V computeOnce(AtomicReference<V> cache, Supplier<V> builder) {
+    V value = cache.get();
+    GraphEngineStats.getInstance().recordCacheLookup(value != null);
+    if (value == null) {
+      value = builder.get();
+      if (!cache.compareAndSet(null, value)) {
+        value = cache.get();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Helper method that gets the strongly connected components of the snapshot.
+   *
+   * @return components of the snapshot
+   */
+  private StronglyConnectedComponents getComponents() {
+    return computeOnce(components, () -> new StronglyConnectedComponents(index));
+  }
+
+  /**
+   * Helper method that gets the weakly connected components of the snapshot.
+   *
+   * @return weakly connected components of the snapshot
+   */
+  private WeaklyConnectedComponents getWeakComponents() {
+    return computeOnce(weakComponents, () -> new WeaklyConnectedComponents(index));
+  }
+
+  /**
+   * Helper method that gets the transitive closure of the snapshot.
+   *
+   * @return transitive closure of the snapshot
+   */
+  private TransitiveClosure getClosure() {
+    return computeOnce(transitiveClosure, () -> new TransitiveClosure(index, getComponents()));
+  }
+
+  /**
+   * Helper method that gets the reachability index of the snapshot.
+   *
+   * @return reachability index of the snapshot
+   */
+  private ReachabilityIndex getReachability() {
+    return computeOnce(
+        reachability,
+        () -> {
+          // Small condensations share the dense closure with the closure queries
+          StronglyConnectedComponents components = getComponents();
+          return new ReachabilityIndex(
+              components,
+              components.componentCount() <= TransitiveClosure.DENSE_LIMIT ? getClosure() : null);
+        });
+  }
+
+  /**
+   * Helper method that gets the topological sort of the snapshot.
+   *
+   * @return topological sort of the snapshot
+   */
+  private TopologicalSort getTopologicalSort() {
+    return computeOnce(topologicalSort, () -> new TopologicalSort(index));
+  }
+
+  /**
+   * Helper method that gets the set of every edge of the snapshot as packed keys.
+   *
+   * @return edge key set of the snapshot
+   */
+  private EdgeKeySet getEdgeKeys() {
+    return computeOnce(
+        edgeKeys,
+        () -> {
+          EdgeKeySet keys = new EdgeKeySet(index.edgeCount());
+          for (int vertex = 0; vertex < index.vertexCount(); vertex++) {
+            for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+              keys.add(vertex, index.target(edge));
+            }
+          }
+          return keys;
+        });
+  }
+
+  /**
+   * Number of verticies in the snapshot.
+   *
+   * @return int number of verticies
+   */
+  public int vertexCount() {
+    return index.vertexCount();
+  }
+
+  /**
+   * Number of edges in the snapshot.
+   *
+   * @return int number of edges
+   */
+  public int edgeCount() {
+    return index.edgeCount();
+  }
+
+  /**
+   * Checks if a vertex is in the snapshot.
+   *
+   * @param vertex vertex to look for
+   * @return true if the vertex is in the snapshot, false otherwise
+   */
+  public boolean containsVertex(T vertex) {
+    return index.getId(vertex) >= 0;
+  }
+
+  /**
+   * Gets the weight of an edge.
+   *
+   * @param source vertex the edge leaves from
+   * @param destination vertex the edge arrives at
+   * @return weight of the edge, or NaN if the snapshot does not contain the edge
+   */
+  public double getWeight(T source, T destination) {
+    int from = index.getId(source);
+    int to = index.getId(destination);
+    int edge = from < 0 || to < 0 ? -1 : index.findEdge(from, to);
+    return edge < 0 ? Double.NaN : index.weight(edge);
+  }
+
+  /**
+   * Checks if any edge has a negative weight, which shortest path queries do not allow.
+   *
+   * @return true if some edge weight is negative, false otherwise
+   */
+  public boolean hasNegativeWeights() {
+    return negativeWeightCount > 0;
+  }
+
+  /**
+   * Checks if there is a path of edges from one vertex to another. Every vertex can reach itself.
+   *
+   * @param source vertex the path leaves from
+   * @param destination vertex the path arrives at
+   * @return true if destination can be reached from source, false otherwise, including when
+   *     either vertex is not in the snapshot
+   * @see Graph#isReachable(Comparable, Comparable)
+   */
+  public boolean isReachable(T source, T destination) {
+    return query(
+        "isReachable",
+        () -> {
+          int sourceId = index.getId(source);
+          int destinationId = index.getId(destination);
+          return sourceId >= 0
+              && destinationId >= 0
+              && getReachability().canReach(sourceId, destinationId);
+        });
+  }
+
+  /**
+   * The length of the shortest weighted path from a vertex to every vertex it can reach.
+   *
+   * @param source vertex the paths leave from
+   * @return Map of each reachable vertex in numerical order to its distance from source, empty if
+   *     source is not in the snapshot
+   * @throws IllegalStateException if the snapshot has a negative edge weight
+   * @see Graph#getShortestDistances(Comparable)
+   */
+  public Map<T, Double> getShortestDistances(T source) {
+    checkNonNegativeWeights();
+    return query(
+        "getShortestDistances",
+        () -> {
+          Map<T, Double> distances = new TreeMap<T, Double>(comparator);
+          int sourceId = index.getId(source);
+          if (sourceId < 0) {
+            return distances;
+          }
+
+          DijkstraShortestPaths paths = new DijkstraShortestPaths(index, sourceId);
+
+          for (int vertex = 0; vertex < index.vertexCount(); vertex++) {
+            if (paths.isReachable(vertex)) {
+              distances.put(index.getVertex(vertex), paths.distance(vertex));
+            }
+          }
+          return distances;
+        });
+  }
+
+  /**
+   * The number of edges on a shortest path from each of several vertices to every vertex it can
+   * reach. The sources are searched together by a bit-parallel breadth first search, 64 at a time.
+   *
+   * @param sources vertices the paths leave from
+   * @return Map of each source in the given order to a map of each vertex it reaches, in numerical
+   *     order, to its distance from the source, which is empty for a source not in the snapshot
+   * @see Graph#getHopDistances(List)
+   */
+  public Map<T, Map<T, Integer>> getHopDistances(List<T> sources) {
+    return query(
+        "getHopDistances",
+        () -> {
+          int[] sourceIds = knownIds(sources);
+          MultiSourceBfs search = new MultiSourceBfs(index, sourceIds);
+          Map<T, Map<T, Integer>> distances = new LinkedHashMap<T, Map<T, Integer>>();
+
+          int position = 0;
+          for (T source : sources) {
+            Map<T, Integer> row = new TreeMap<T, Integer>(comparator);
+            if (index.getId(source) >= 0) {
+              for (int vertex = 0; vertex < index.vertexCount(); vertex++) {
+                if (search.isReachable(position, vertex)) {
+                  row.put(index.getVertex(vertex), search.distance(position, vertex));
+                }
+              }
+              position++;
+            }
+            distances.put(source, row);
+          }
+          return distances;
+        });
+  }
+
+  /**
+   * Helper method that looks up the ids of the vertices that are in the snapshot.
+   *
+   * @param vertices vertices to look up
+   * @return ids of the vertices in the given order, leaving out those not in the snapshot
+   */
+  private int[] knownIds(List<T> vertices) {
+    int[] ids = new int[vertices.size()];
+    int count = 0;
+    for (T vertex : vertices) {
+      int id = index.getId(vertex);
+      if (id >= 0) {
+        ids[count++] = id;
+      }
+    }
+    return Arrays.copyOf(ids, count);
+  }
+
+  /**
+   * The shortest weighted path between two vertices.
+   *
+   * @param source vertex the path leaves from
+   * @param destination vertex the path arrives at
+   * @return List of vertices along the path from source to destination, empty if there is no path
+   *     or either vertex is not in the snapshot
+   * @throws IllegalStateException if the snapshot has a negative edge weight
+   * @see Graph#getShortestWeightedPath(Comparable, Comparable)
+   */
+  public List<T> getShortestWeightedPath(T source, T destination) {
+    checkNonNegativeWeights();
+    return query(
+        "getShortestWeightedPath",
+        () -> {
+          int sourceId = index.getId(source);
+          int target = index.getId(destination);
+          if (sourceId < 0 || target < 0) {
+            return new ArrayList<T>();
+          }
+
+          DijkstraShortestPaths paths = new DijkstraShortestPaths(index, sourceId, target);
+          return toVertices(paths.path(target));
+        });
+  }
+
+  /**
+   * The shortest path between two vertices by number of edges, ignoring weights.
+   *
+   * @param source vertex the path leaves from
+   * @param destination vertex the path arrives at
+   * @return List of vertices along the path from source to destination, empty if there is no path
+   *     or either vertex is not in the snapshot
+   * @see Graph#getShortestPath(Comparable, Comparable)
+   */
+  public List<T> getShortestPath(T source, T destination) {
+    return query(
+        "getShortestPath",
+        () -> {
+          int sourceId = index.getId(source);
+          int destinationId = index.getId(destination);
+          if (sourceId < 0 || destinationId < 0) {
+            return new ArrayList<T>();
+          }
+
+          BidirectionalSearch search = new BidirectionalSearch(index, sourceId, destinationId);
+          return toVertices(search.path());
+        });
+  }
+
+  /** Helper method that rejects shortest path queries when an edge weight is negative. */
+  private void checkNonNegativeWeights() {
+    if (hasNegativeWeights()) {
+      throw new IllegalStateException("Shortest paths need non-negative edge weights");
+    }
+  }
+
+  /**
+   * Finds a cycle with an iterative three-colour depth first search, in O(V + E).
+   *
+   * @return vertices of the cycle in order, each with an edge to the next and the last with an
+   *     edge to the first, or an empty list if the snapshot is acyclic
+   * @see Graph#findCycle()
+   */
+  public List<T> findCycle() {
+    return query(
+        "findCycle",
+        () -> toVertices(computeOnce(cycleDetector, () -> new CycleDetector(index)).cycle()));
+  }
+
+  /**
+   * The set of vertices reachable from several vertices by zero or more edges, found by
+   * work-stealing parallel tasks over the compressed rows of the snapshot. The tasks visit vertices
+   * in no particular order, which is faster than the ordered searches when only the set is needed.
+   *
+   * @param sources vertices to search from, where those not in the snapshot are ignored
+   * @return List of the reachable vertices in numerical order, including the sources
+   * @see Graph#getReachableFrom(List)
+   */
+  public List<T> getReachableFrom(List<T> sources) {
+    return query(
+        "getReachableFrom",
+        () ->
+            toVertices(
+                new ParallelReachability(getCompressedAdjacency(), knownIds(sources))
+                    .toSortedArray()));
+  }
+
+  /**
+   * Helper method that converts a path of ids back to vertices.
+   *
+   * @param ids ids of the vertices along the path
+   * @return List of vertices along the path
+   */
+  private List<T> toVertices(int[] ids) {
+    List<T> vertices = new ArrayList<T>(ids.length);
+    for (int id : ids) {
+      vertices.add(index.getVertex(id));
+    }
+    return vertices;
+  }
+
+  /**
+   * The roots of the snapshot, one for each strongly connected component that no edge from outside
+   * the component arrives at.
+   *
+   * @return set of root vertices
+   * @see Graph#getRoots()
+   */
+  public Set<T> getRoots() {
+    return query(
+        "getRoots",
+        () -> {
+          Set<T> rootVertices = new TreeSet<T>(comparator);
+          for (int root : rootIds()) {
+            rootVertices.add(index.getVertex(root));
+          }
+          return rootVertices;
+        });
+  }
+
+  /**
+   * Helper method that gets the ids of the roots in increasing order.
+   *
+   * @return ids of the root vertices
+   */
+  private int[] rootIds() {
+    StronglyConnectedComponents components = getComponents();
+    int[] roots = new int[components.componentCount()];
+    int count = 0;
+
+    // Ids follow the numerical order, so a component is reached first at its representative
+    for (int vertex = 0; vertex < index.vertexCount(); vertex++) {
+      int component = components.componentOf(vertex);
+      if (components.representative(component) == vertex && components.isSource(component)) {
+        roots[count++] = vertex;
+      }
+    }
+    return Arrays.copyOf(roots, count);
+  }
+
+  /**
+   * The strongly connected components of the snapshot, ordered by their minimum vertex.
+   *
+   * @return List of components, each a set of vertices in numerical order
+   * @see Graph#getStronglyConnectedComponents()
+   */
+  public List<Set<T>> getStronglyConnectedComponents() {
+    return query(
+        "getStronglyConnectedComponents",
+        () -> {
+          StronglyConnectedComponents components = getComponents();
+          List<Set<T>> stronglyConnectedComponents = new ArrayList<Set<T>>();
+
+          for (int vertex = 0; vertex < index.vertexCount(); vertex++) {
+            int component = components.componentOf(vertex);
+            if (components.representative(component) == vertex) {
+              stronglyConnectedComponents.add(componentMembers(components, component));
+            }
+          }
+          return stronglyConnectedComponents;
+        });
+  }
+
+  /**
+   * The transitive closure of the snapshot, which has an edge wherever the snapshot has a path of
+   * one or more edges.
+   *
+   * @return Map of each vertex with closure edges, in numerical order, to the vertices it has
+   *     closure edges to
+   * @see Graph#getTransitiveClosure()
+   */
+  public Map<T, Set<T>> getTransitiveClosure() {
+    return query(
+        "getTransitiveClosure",
+        () -> {
+          TransitiveClosure closure = getClosure();
+          Map<T, Set<T>> edges = new TreeMap<T, Set<T>>(comparator);
+
+          for (int vertex = 0; vertex < index.vertexCount(); vertex++) {
+            int[] destinations = closure.destinations(vertex);
+            if (destinations.length > 0) {
+              Set<T> row = new TreeSet<T>(comparator);
+              for (int destination : destinations) {
+                row.add(index.getVertex(destination));
+              }
+              edges.put(index.getVertex(vertex), row);
+            }
+          }
+          return edges;
+        });
+  }
+
+  /**
+   * Number of edges in the transitive closure of the snapshot, which is counted without listing
+   * them.
+   *
+   * @return long number of closure edges
+   * @see Graph#getClosureEdgeCount()
+   */
+  public long getClosureEdgeCount() {
+    return query("getClosureEdgeCount", () -> getClosure().edgeCount());
+  }
+
+  /**
+   * The weakly connected components of the snapshot, ordered by their minimum vertex.
+   *
+   * @return List of components, each a set of vertices in numerical order
+   * @see Graph#getWeaklyConnectedComponents()
+   */
+  public List<Set<T>> getWeaklyConnectedComponents() {
+    return query(
+        "getWeaklyConnectedComponents",
+        () -> {
+          WeaklyConnectedComponents components = getWeakComponents();
+          List<Set<T>> weaklyConnectedComponents = new ArrayList<Set<T>>();
+
+          for (int component = 0; component < components.componentCount(); component++) {
+            Set<T> members = new TreeSet<T>(comparator);
+            for (int member = components.memberStart(component);
+                member < components.memberEnd(component);
+                member++) {
+              members.add(index.getVertex(components.member(member)));
+            }
+            weaklyConnectedComponents.add(members);
+          }
+          return weaklyConnectedComponents;
+        });
+  }
+
+  /**
+   * The condensation of the snapshot, with each component represented by its minimum vertex.
+   *
+   * @return Map of representative vertex to the set of representatives it has an edge to
+   * @see Graph#getCondensation()
+   */
+  public Map<T, Set<T>> getCondensation() {
+    return query(
+        "getCondensation",
+        () -> {
+          StronglyConnectedComponents components = getComponents();
+          Map<T, Set<T>> condensation = new TreeMap<T, Set<T>>(comparator);
+
+          for (int component = 0; component < components.componentCount(); component++) {
+            Set<T> successors = new TreeSet<T>(comparator);
+            for (int edge = components.successorStart(component);
+                edge < components.successorEnd(component);
+                edge++) {
+              int successor = components.successor(edge);
+              successors.add(index.getVertex(components.representative(successor)));
+            }
+            condensation.put(index.getVertex(components.representative(component)), successors);
+          }
+          return condensation;
+        });
+  }
+
+  /**
+   * Helper method that converts the members of a component back to vertices.
+   *
+   * @param components components of the snapshot
+   * @param component id of the component
+   * @return set of member vertices in numerical order
+   */
+  private Set<T> componentMembers(StronglyConnectedComponents components, int component) {
+    Set<T> members = new TreeSet<T>(comparator);
+    for (int member = components.memberStart(component);
+        member < components.memberEnd(component);
+        member++) {
+      members.add(index.getVertex(components.member(member)));
+    }
+    return members;
+  }
+
+  /**
+   * Checks if the snapshot has no cycles, including self-loops.
+   *
+   * @return true if the snapshot is acyclic, false otherwise
+   */
+  public boolean isAcyclic() {
+    return query("isAcyclic", () -> getTopologicalSort().isAcyclic());
+  }
+
+  /**
+   * A topological order of the snapshot split into layers.
+   *
+   * @return List of layers, each a list of vertices in numerical order
+   * @throws IllegalStateException if the snapshot has a cycle
+   * @see Graph#getTopologicalLayers()
+   */
+  public List<List<T>> getTopologicalLayers() {
+    return query(
+        "getTopologicalLayers",
+        () -> {
+          TopologicalSort sort = getTopologicalSort();
+          if (!sort.isAcyclic()) {
+            throw new IllegalStateException("Graph with a cycle has no topological order");
+          }
+          List<List<T>> layers = new ArrayList<List<T>>();
+
+          for (int layer = 0; layer < sort.layerCount(); layer++) {
+            List<T> verticesInLayer = new ArrayList<T>();
+            for (int position = sort.layerStart(layer);
+                position < sort.layerEnd(layer);
+                position++) {
+              verticesInLayer.add(index.getVertex(sort.vertexAt(position)));
+            }
+            layers.add(verticesInLayer);
+          }
+          return layers;
+        });
+  }
+
+  /**
+   * Checks if every vertex has a self-loop.
+   *
+   * @return boolean value - true if the snapshot is reflexive, false if not reflexive
+   */
+  public boolean isReflexive() {
+    return query("isReflexive", () -> selfLoopCount == index.vertexCount());
+  }
+
+  /**
+   * Checks if every edge that is not a self-loop has its reverse edge.
+   *
+   * @return boolean value - true if the snapshot is symmetric, false if not symmetric
+   */
+  public boolean isSymmetric() {
+    return query("isSymmetric", () -> mutualEdgeCount == index.edgeCount() - selfLoopCount);
+  }
+
+  /**
+   * If vertex1 -> vertex2 and vertex2 -> vertex3 then vertex1 -> vertex3 must exist for this
+   * snapshot to be transitive. Each path of two edges is checked with a binary search of the row of
+   * its first vertex, so this takes time proportional to the number of such paths. If the
+   * transitive closure has already been built, the snapshot is instead transitive exactly when the
+   * closure has no more edges than it.
+   *
+   * @return boolean value - true if the snapshot is transitive, false if not transitive
+   */
+  public boolean isTransitive() {
+    return query(
+        "isTransitive",
+        () -> {
+          TransitiveClosure closure = transitiveClosure.get();
+          if (closure != null) {
+            return closure.isTransitive(index.edgeCount());
+          }
+
+          for (int vertex1 = 0; vertex1 < index.vertexCount(); vertex1++) {
+            for (int edge = index.start(vertex1); edge < index.end(vertex1); edge++) {
+              int vertex2 = index.target(edge);
+              for (int next = index.start(vertex2); next < index.end(vertex2); next++) {
+                if (index.findEdge(vertex1, index.target(next)) < 0) {
+                  return false;
+                }
+              }
+            }
+          }
+          return true;
+        });
+  }
+
+  /**
+   * Checks if no edge other than a self-loop has its reverse edge.
+   *
+   * @return boolean value - true if the snapshot is antisymmetric, false if not antisymmetric
+   */
+  public boolean isAntiSymmetric() {
+    return query("isAntiSymmetric", () -> mutualEdgeCount == 0);
+  }
+
+  /**
+   * If the snapshot is reflexive, symmetric and transitive, then it is an equivalence relation.
+   *
+   * @return boolean value - true if the snapshot is equivalent , false if not equivalent
+   */
+  public boolean isEquivalence() {
+    return query("isEquivalence", () -> isReflexive() && isSymmetric() && isTransitive());
+  }
+
+  /**
+   * Evaluates every relation property of the snapshot together, in one parallel pass over the
+   * edges.
+   *
+   * @return the reflexivity, symmetry, transitivity, antisymmetry and equivalence of the snapshot
+   */
+  public RelationProperties getRelationProperties() {
+    return query(
+        "getRelationProperties",
+        () -> computeOnce(relationProperties, () -> new RelationProperties(index, getEdgeKeys())));
+  }
+
+  /**
+   * Counts the degrees of every vertex of the snapshot in one parallel pass over its row offsets,
+   * which does not read the edges.
+   *
+   * @return degree distributions, maximum degrees, isolated verticies and density of the snapshot
+   */
+  public DegreeStatistics getDegreeStatistics() {
+    return query(
+        "getDegreeStatistics",
+        () -> computeOnce(degreeStatistics, () -> new DegreeStatistics(index, selfLoopCount)));
+  }
+
+  /**
+   * Ranks every vertex of the snapshot by PageRank, with parallel power iteration over the reverse
+   * rows.
+   *
+   * @return PageRank scores of the snapshot and the iterations taken to converge
+   */
+  public PageRank getPageRank() {
+    return query("getPageRank", () -> computeOnce(pageRank, () -> new PageRank(index)));
+  }
+
+  /**
+   * The vertices with the highest PageRank, breaking ties numerically.
+   *
+   * @param k largest number of vertices to return
+   * @return up to k vertices mapped to their PageRank, from the highest down
+   */
+  public Map<T, Double> getTopPageRank(int k) {
+    return query("getTopPageRank", () -> topScores(getPageRank().scores(), k));
+  }
+
+  /**
+   * The vertices with the highest degree centrality, which is the number of edges leaving or
+   * arriving at a vertex divided by the number of other vertices, breaking ties numerically.
+   *
+   * @param k largest number of vertices to return
+   * @return up to k vertices mapped to their degree centrality, from the highest down
+   */
+  public Map<T, Double> getTopDegreeCentrality(int k) {
+    return query(
+        "getTopDegreeCentrality",
+        () ->
+            topScores(
+                computeOnce(degreeCentrality, () -> VertexScores.degreeCentrality(index)), k));
+  }
+
+  /**
+   * Helper method that converts the highest scores back to vertices.
+   *
+   * @param scores score of each vertex id
+   * @param k largest number of vertices to return
+   * @return up to k vertices mapped to their score, from the highest down
+   */
+  private Map<T, Double> topScores(VertexScores scores, int k) {
+    Map<T, Double> top = new LinkedHashMap<T, Double>();
+    for (int id : scores.top(k)) {
+      top.put(index.getVertex(id), scores.score(id));
+    }
+    return top;
+  }
+
+  /**
+   * Compresses the forward rows of the snapshot into gap-encoded variable-length integers, for
+   * traversals that only need the neighbours of each vertex. The rows are labelled in the order
+   * given by {@link VertexOrdering#configured()}.
+   *
+   * @return compressed adjacency of the snapshot
+   */
+  public CompressedAdjacency getCompressedAdjacency() {
+    return query(
+        "getCompressedAdjacency",
+        () ->
+            computeOnce(
+                compressedAdjacency,
+                () -> new CompressedAdjacency(index, VertexOrdering.configured())));
+  }
+
+  /**
+   * Compresses the forward rows of the snapshot with the verticies relabelled in a given order,
+   * without keeping the result, so that orderings can be compared.
+   *
+   * @param ordering order to label the verticies in
+   * @return compressed adjacency of the snapshot in that order
+   */
+  public CompressedAdjacency compressAdjacency(VertexOrdering ordering) {
+    return query("compressAdjacency", () -> new CompressedAdjacency(index, ordering));
+  }
+
+  /**
+   * The equivalence class of a vertex, which is every vertex it has an edge to when the snapshot is
+   * an equivalence relation.
+   *
+   * @param vertex vertex to get equivalence class for
+   * @return Set of vertices in the equivalence class, empty if the snapshot is not an equivalence
+   *     relation or does not contain the vertex
+   */
+  public Set<T> getEquivalenceClass(T vertex) {
+    return query(
+        "getEquivalenceClass",
+        () -> {
+          Set<T> equivalenceClass = new TreeSet<T>(comparator);
+          int id = index.getId(vertex);
+
+          if (id >= 0 && isEquivalence()) {
+            for (int edge = index.start(id); edge < index.end(id); edge++) {
+              equivalenceClass.add(index.getVertex(index.target(edge)));
+            }
+          }
+          return equivalenceClass;
+        });
+  }
+
+  /**
+   * Conducts a breadth first search iteratively from each root in turn. Vertices at the same depth
+   * are visited in numerical order.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> iterativeBreadthFirstSearch() {
+    return query(
+        "iterativeBreadthFirstSearch",
+        () -> {
+          List<T> visited = new ArrayList<T>();
+          VisitedSet seen = index.newVisitedSet();
+
+          for (int root : rootIds()) {
+            breadthFirstFrom(root, seen::add, visited);
+          }
+          return visited;
+        });
+  }
+
+  /**
+   * Conducts a depth first search iteratively from each root in turn. Vertices at the same depth
+   * are visited in numerical order.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> iterativeDepthFirstSearch() {
+    return query(
+        "iterativeDepthFirstSearch",
+        () -> {
+          List<T> visited = new ArrayList<T>();
+          VisitedSet seen = index.newVisitedSet();
+
+          for (int root : rootIds()) {
+            depthFirstFrom(root, seen::add, visited);
+          }
+          return visited;
+        });
+  }
+
+  /**
+   * Conducts the same breadth first search as {@link #iterativeBreadthFirstSearch()}, searching
+   * the weakly connected components in parallel and joining their results in root order, so the
+   * order of visited is identical.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> parallelBreadthFirstSearch() {
+    return query(
+        "parallelBreadthFirstSearch", () -> searchComponentsInParallel(this::breadthFirstFrom));
+  }
+
+  /**
+   * Conducts the same depth first search as {@link #iterativeDepthFirstSearch()}, searching the
+   * weakly connected components in parallel and joining their results in root order, so the order
+   * of visited is identical.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> parallelDepthFirstSearch() {
+    return query(
+        "parallelDepthFirstSearch", () -> searchComponentsInParallel(this::depthFirstFrom));
+  }
+
+  /**
+   * A search that visits every vertex it can reach from a root that no earlier search visited.
+   *
+   * @param <T> The type of each vertex.
+   */
+  @FunctionalInterface
+  private interface RootSearch<T> {
+    /**
+     * Searches from a root.
+     *
+     * @param root id of the root
+     * @param firstVisit marks a vertex as visited, returning false if it already was
+     * @param visited vertices in order of visited, which the search adds to
+     */
+    void search(int root, IntPredicate firstVisit, List<T> visited);
+  }
+
+  /**
+   * Helper method that searches from each root, with one task per weakly connected component.
+   * Nothing reaches outside its weakly connected component, so the roots of a component are
+   * searched in order by one task with a visited set of its own, and the result of each root is
+   * the same as if every root were searched in turn.
+   *
+   * @param rootSearch search to run from each root
+   * @return results of every root joined in root order
+   */
+  private List<T> searchComponentsInParallel(RootSearch<T> rootSearch) {
+    WeaklyConnectedComponents components = getWeakComponents();
+    int[] roots = rootIds();
+
+    // Group the positions of the roots by component, keeping root order within each component
+    int[] rootOffsets = new int[components.componentCount() + 1];
+    for (int root : roots) {
+      rootOffsets[components.componentOf(root) + 1]++;
+    }
+    for (int component = 0; component < components.componentCount(); component++) {
+      rootOffsets[component + 1] += rootOffsets[component];
+    }
+    int[] rootsByComponent = new int[roots.length];
+    int[] fill = Arrays.copyOf(rootOffsets, components.componentCount());
+    for (int position = 0; position < roots.length; position++) {
+      rootsByComponent[fill[components.componentOf(roots[position])]++] = position;
+    }
+
+    // Each task writes the results of its own roots only, and the stream joins every task
+    List<List<T>> results = new ArrayList<List<T>>(Collections.nCopies(roots.length, null));
+    IntStream.range(0, components.componentCount())
+        .parallel()
+        .forEach(
+            component -> {
+              VisitedSet seen = new VisitedSet(components.size(component));
+              IntPredicate firstVisit = vertex -> seen.add(components.positionOf(vertex));
+              for (int i = rootOffsets[component]; i < rootOffsets[component + 1]; i++) {
+                List<T> visited = new ArrayList<T>();
+                rootSearch.search(roots[rootsByComponent[i]], firstVisit, visited);
+                results.set(rootsByComponent[i], visited);
+              }
+            });
+
+    List<T> visited = new ArrayList<T>(index.vertexCount());
+    for (List<T> result : results) {
+      visited.addAll(result);
+    }
+    return visited;
+  }
+
+  /**
+   * Helper method that searches breadth first from a root. Rows are sorted, so neighbours are
+   * queued in numerical order.
+   *
+   * @param root id of the root
+   * @param firstVisit marks a vertex as visited, returning false if it already was
+   * @param visited vertices in order of visited
+   */
+  private void breadthFirstFrom(int root, IntPredicate firstVisit, List<T> visited) {
+    Queue<Integer> queue = new Queue<Integer>();
+    queue.enqueue(root);
+    firstVisit.test(root);
+    visited.add(index.getVertex(root));
+
+    while (!queue.isEmpty()) {
+      int current = queue.dequeue();
+      for (int edge = index.start(current); edge < index.end(current); edge++) {
+        int neighbour = index.target(edge);
+        if (firstVisit.test(neighbour)) {
+          visited.add(index.getVertex(neighbour));
+          queue.enqueue(neighbour);
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method that searches depth first from a root, skipping verticies already visited.
+   *
+   * @param root id of the root
+   * @param firstVisit marks a vertex as visited, returning false if it already was
+   * @param visited vertices in order of visited
+   */
+  private void depthFirstFrom(int root, IntPredicate firstVisit, List<T> visited) {
+    Stack<Integer> stack = new Stack<Integer>();
+    stack.push(root);
+
+    while (!stack.isEmpty()) {
+      int current = stack.pop();
+      if (firstVisit.test(current)) {
+        visited.add(index.getVertex(current));
+        // Push in reverse so the smallest neighbour is popped first
+        for (int edge = index.end(current) - 1; edge >= index.start(current); edge--) {
+          stack.push(index.target(edge));
+        }
+      }
+    }
+  }
+
+  /**
+   * Conducts a breadth first search recursively from each root in turn. Vertices at the same depth
+   * are visited in numerical order.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> recursiveBreadthFirstSearch() {
+    return query(
+        "recursiveBreadthFirstSearch",
+        () -> {
+          List<T> visited = new ArrayList<T>();
+          VisitedSet seen = index.newVisitedSet();
+
+          for (int root : rootIds()) {
+            seen.add(root);
+            visited.add(index.getVertex(root));
+            recursiveBfs(List.of(root), seen, visited);
+          }
+          return visited;
+        });
+  }
+
+  /**
+   * Helper method that visits the unvisited neighbours of every vertex at the current depth, then
+   * recurses once for the next depth.
+   *
+   * @param depth vertices at the current depth in order of visited
+   * @param seen which vertices have been visited
+   * @param visited vertices in order of visited
+   */
+  private void recursiveBfs(List<Integer> depth, VisitedSet seen, List<T> visited) {
+    if (depth.isEmpty()) {
+      return;
+    }
+
+    List<Integer> nextDepth = new ArrayList<Integer>();
+    for (int current : depth) {
+      for (int edge = index.start(current); edge < index.end(current); edge++) {
+        int neighbour = index.target(edge);
+        if (!seen.contains(neighbour)) {
+          seen.add(neighbour);
+          visited.add(index.getVertex(neighbour));
+          nextDepth.add(neighbour);
+        }
+      }
+    }
+    recursiveBfs(nextDepth, seen, visited);
+  }
+
+  /**
+   * Conducts a depth first search recursively from each root in turn. Vertices at the same depth
+   * are visited in numerical order.
+   *
+   * @return List of vertices in order of visited
+   */
+  public List<T> recursiveDepthFirstSearch() {
+    return query(
+        "recursiveDepthFirstSearch",
+        () -> {
+          List<T> visited = new ArrayList<T>();
+          VisitedSet seen = index.newVisitedSet();
+
+          for (int root : rootIds()) {
+            recursiveDfs(root, seen, visited);
+          }
+          return visited;
+        });
+  }
+
+  /**
+   * Helper method that visits a vertex, then recurses into each unvisited neighbour in numerical
+   * order.
+   *
+   * @param vertex vertex to visit
+   * @param seen which vertices have been visited
+   * @param visited vertices in order of visited
+   */
+  private void recursiveDfs(int vertex, VisitedSet seen, List<T> visited) {
+    seen.add(vertex);
+    visited.add(index.getVertex(vertex));
+
+    for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+      int neighbour = index.target(edge);
+      if (!seen.contains(neighbour)) {
+        recursiveDfs(neighbour, seen, visited);
+      }
+    }
+  }
+}
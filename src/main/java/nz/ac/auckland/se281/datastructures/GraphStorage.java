@@ -0,0 +1,116 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Where the read-only index of a graph keeps its arrays. {@link #HEAP} uses ordinary Java arrays.
+ * {@link #OFF_HEAP} uses direct buffers outside the Java heap for the compressed sparse rows, the
+ * edge weights and the vertex dictionary, which live as long as the index and which the garbage
+ * collector never has to scan or copy.
+ *
+ * <p>Only the index moves off the heap. A {@link Graph} keeps its own adjacency rows and edge keys
+ * on the heap so that it can change, so a graph that is only queried should be indexed straight
+ * from its edges with {@link Graph#snapshotOf} to hold a single copy. Whatever the storage, the
+ * state derived from an index, such as the components, transitive closure, compressed adjacency
+ * and PageRank scores of a snapshot, is kept in heap arrays, as are the visited sets of single
+ * queries. A direct buffer is only freed once the collector finds it unreachable, so allocating one
+ * per query would churn native memory.
+ *
+ * <p>The storage of graphs that are not given one explicitly is read from the {@value #PROPERTY}
+ * system property, e.g. {@code -Dgraph.storage=off-heap}, and is {@link #HEAP} by default.
+ */
+public enum GraphStorage {
+  HEAP,
+  OFF_HEAP;
+
+  public static final String PROPERTY = "graph.storage";
+
+  /**
+   * Gets the storage selected by the {@value #PROPERTY} system property.
+   *
+   * @return the selected storage, or {@link #HEAP} if the property is not set
+   * @throws IllegalArgumentException if the property names no storage
+   */
+  public static GraphStorage configured() {
+    String name = System.getProperty(PROPERTY);
+    if (name == null) {
+      return HEAP;
+    }
+    return valueOf(name.trim().toUpperCase().replace('-', '_'));
+  }
+
+  /**
+   * Allocates a zeroed array of ints.
+   *
+   * @param length number of ints
+   * @return buffer of the ints
+   */
+  public IntBuffer allocateInts(int length) {
+    if (this == HEAP) {
+      return IntBuffer.allocate(length);
+    }
+    return allocateDirect(length * 4L).asIntBuffer();
+  }
+
+  /**
+   * Stores a copy of an array of ints, or the array itself on the heap.
+   *
+   * @param values ints to store
+   * @return buffer of the ints
+   */
+  public IntBuffer storeInts(int[] values) {
+    if (this == HEAP) {
+      return IntBuffer.wrap(values);
+    }
+    IntBuffer buffer = allocateInts(values.length);
+    buffer.put(values);
+    return buffer;
+  }
+
+  /**
+   * Allocates a zeroed array of doubles.
+   *
+   * @param length number of doubles
+   * @return buffer of the doubles
+   */
+  public DoubleBuffer allocateDoubles(int length) {
+    if (this == HEAP) {
+      return DoubleBuffer.allocate(length);
+    }
+    return allocateDirect(length * 8L).asDoubleBuffer();
+  }
+
+  /**
+   * Allocates a zeroed array of bytes.
+   *
+   * @param length number of bytes
+   * @return buffer of the bytes
+   */
+  public ByteBuffer allocateBytes(int length) {
+    if (this == HEAP) {
+      return ByteBuffer.allocate(length);
+    }
+    return allocateDirect(length);
+  }
+
+  /**
+   * Helper method that allocates a direct buffer in the native byte order, which is the fastest
+   * order to read multi-byte values from.
+   *
+   * @param bytes number of bytes
+   * @return direct buffer of the bytes
+   */
+  private static ByteBuffer allocateDirect(long bytes) {
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Graph is too large for one buffer: " + bytes + " bytes");
+    }
+    return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+  }
+}
@@ -0,0 +1,59 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashMap;
+
+/**
+ * A vertex dictionary on the heap, made of the sorted array of verticies and a hash map from each
+ * vertex to its position.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+class HeapVertexDictionary<T> implements VertexDictionary<T> {
+  private final Object[] verticies;
+  private final HashMap<T, Integer> ids;
+
+  /**
+   * Creates the dictionary.
+   *
+   * @param verticies every vertex, in increasing order
+   */
+  HeapVertexDictionary(Object[] verticies) {
+    this.verticies = verticies;
+    ids = new HashMap<T, Integer>(verticies.length * 2);
+    for (int id = 0; id < verticies.length; id++) {
+      ids.put(getVertex(id), id);
+    }
+  }
+
+  @Override
+  public int size() {
+    return verticies.length;
+  }
+
+  @Override
+  public int getId(T vertex) {
+    Integer id = ids.get(vertex);
+    return id == null ? -1 : id;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T getVertex(int id) {
+    return (T) verticies[id];
+  }
+
+  @Override
+  public long estimateHeapBytes() {
+    // Array slot and hash map entry per vertex
+    return verticies.length * 48L;
+  }
+
+  @Override
+  public long estimateOffHeapBytes() {
+    return 0;
+  }
+}
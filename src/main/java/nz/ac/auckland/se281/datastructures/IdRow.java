@@ -0,0 +1,128 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * One adjacency list of a {@link Graph}, held as a growable array of vertex ids in the order the
+ * edges were added, with a parallel array of weights that is only allocated once the row holds an
+ * edge whose weight is not {@link Edge#DEFAULT_WEIGHT}. A row costs four bytes per edge instead of
+ * a node object per edge, and removing an edge shifts the later ids down to keep their order.
+ */
+class IdRow {
+  // Array header and the reference, int and weights reference of the row itself
+  private static final long ROW_BYTES = 40;
+  private static final int[] NO_IDS = new int[0];
+
+  private int[] ids = NO_IDS;
+  private double[] weights;
+  private int size;
+
+  /**
+   * Number of ids in the row.
+   *
+   * @return int number of ids
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Gets the id at a position of the row.
+   *
+   * @param position position in the row, counting from 0
+   * @return id at the position
+   */
+  int get(int position) {
+    return ids[position];
+  }
+
+  /**
+   * Gets the weight of the edge at a position of the row.
+   *
+   * @param position position in the row, counting from 0
+   * @return weight of the edge at the position
+   */
+  double weight(int position) {
+    return weights == null ? Edge.DEFAULT_WEIGHT : weights[position];
+  }
+
+  /**
+   * Finds the position of an id, with a scan of the row.
+   *
+   * @param id id to look for
+   * @return position of the id, or -1 if the row does not hold it
+   */
+  int indexOf(int id) {
+    for (int position = 0; position < size; position++) {
+      if (ids[position] == id) {
+        return position;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Appends an id to the row. The row must not already hold the id.
+   *
+   * @param id id to append
+   * @param weight weight of the edge to the id
+   */
+  void add(int id, double weight) {
+    if (size == ids.length) {
+      ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+      if (weights != null) {
+        weights = Arrays.copyOf(weights, ids.length);
+      }
+    }
+    if (weights == null && weight != Edge.DEFAULT_WEIGHT) {
+      weights = new double[ids.length];
+      Arrays.fill(weights, 0, size, Edge.DEFAULT_WEIGHT);
+    }
+
+    ids[size] = id;
+    if (weights != null) {
+      weights[size] = weight;
+    }
+    size++;
+  }
+
+  /**
+   * Removes an id from the row, keeping the order of the ids after it.
+   *
+   * @param id id to remove, which the row must hold
+   * @return weight of the removed edge
+   */
+  double remove(int id) {
+    int position = indexOf(id);
+    double weight = weight(position);
+    System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+    if (weights != null) {
+      System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+    }
+    size--;
+    return weight;
+  }
+
+  /**
+   * Copies the ids of the row.
+   *
+   * @return ids in the order of the row
+   */
+  int[] toArray() {
+    return Arrays.copyOf(ids, size);
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the row, including its spare capacity.
+   *
+   * @return approximate memory footprint in bytes
+   */
+  long estimateFootprintBytes() {
+    long weightBytes = weights == null ? 0 : 16 + weights.length * 8L;
+    return ROW_BYTES + ids.length * 4L + weightBytes;
+  }
+}
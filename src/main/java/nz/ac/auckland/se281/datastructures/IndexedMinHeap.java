@@ -0,0 +1,133 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of vertex ids ordered by a double key, where the key of a queued vertex can be
+ * lowered in place. The heap and the position of each id in it are stored in primitive arrays sized
+ * once on creation, so no operation allocates.
+ */
+public class IndexedMinHeap {
+  private static final int ABSENT = -1;
+
+  private final int[] heap;
+  private final int[] position;
+  private final double[] keys;
+  private int size;
+
+  /**
+   * Creates an empty heap that can hold the ids 0 to capacity - 1.
+   *
+   * @param capacity number of ids
+   */
+  public IndexedMinHeap(int capacity) {
+    heap = new int[capacity];
+    position = new int[capacity];
+    keys = new double[capacity];
+    Arrays.fill(position, ABSENT);
+  }
+
+  /**
+   * Check if heap is empty or not.
+   *
+   * @return boolean true if the heap is empty, false otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Checks if an id is currently queued.
+   *
+   * @param id id to look for
+   * @return true if the id is in the heap, false otherwise
+   */
+  public boolean contains(int id) {
+    return position[id] != ABSENT;
+  }
+
+  /**
+   * Adds an id to the heap, or lowers its key if it is already queued with a larger key.
+   *
+   * @param id id to queue
+   * @param key priority of the id, smaller keys are removed first
+   */
+  public void insertOrDecrease(int id, double key) {
+    if (position[id] == ABSENT) {
+      heap[size] = id;
+      position[id] = size;
+      keys[id] = key;
+      siftUp(size++);
+    } else if (key < keys[id]) {
+      keys[id] = key;
+      siftUp(position[id]);
+    }
+  }
+
+  /**
+   * Removes the id with the smallest key.
+   *
+   * @return id with the smallest key
+   */
+  public int removeMin() {
+    int min = heap[0];
+    position[min] = ABSENT;
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];
+      position[heap[0]] = 0;
+      siftDown(0);
+    }
+    return min;
+  }
+
+  /**
+   * Helper method that moves the entry at a heap slot up until its parent has a smaller key.
+   *
+   * @param slot slot of the entry to move
+   */
+  private void siftUp(int slot) {
+    int id = heap[slot];
+    while (slot > 0) {
+      int parent = (slot - 1) >>> 1;
+      if (keys[heap[parent]] <= keys[id]) {
+        break;
+      }
+      heap[slot] = heap[parent];
+      position[heap[slot]] = slot;
+      slot = parent;
+    }
+    heap[slot] = id;
+    position[id] = slot;
+  }
+
+  /**
+   * Helper method that moves the entry at a heap slot down until both children have larger keys.
+   *
+   * @param slot slot of the entry to move
+   */
+  private void siftDown(int slot) {
+    int id = heap[slot];
+    while (true) {
+      int child = 2 * slot + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+        child++;
+      }
+      if (keys[id] <= keys[heap[child]]) {
+        break;
+      }
+      heap[slot] = heap[child];
+      position[heap[slot]] = slot;
+      slot = child;
+    }
+    heap[slot] = id;
+    position[id] = slot;
+  }
+}
@@ -1,16 +1,19 @@
 // AUTHOR: Tony Lim
 // DATE CREATED: 26/05/2023
-// LAST EDITED: 04/06/2023
+// LAST EDITED: 19/10/2026
 
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * LinkedList dynamic data structure, being used to implement both stack and queue. Is comprised of
  * node that point to the next node for easy traversal, insertion and deletion.
  *
  * @param <T> The type of each vertex, that have a total ordering.
  */
-public class LinkedList<T> {
+public class LinkedList<T> implements Iterable<T> {
   private Node<T> head;
   private Node<T> tail;
   private int count = 0;
@@ -61,6 +64,9 @@ public class LinkedList<T> {
   public T removeHead() {
     T removedHeadValue = head.getValue();
     head = head.getNext();
+    if (head == null) {
+      tail = null;
+    }
     count--;
     return removedHeadValue;
   }
@@ -81,8 +87,8 @@ public class LinkedList<T> {
    * @return true if value is in LinkedList, false if not.
    */
   public boolean contains(T value) {
-    for (int i = 0; i < count; i++) {
-      if (this.get(i) == value) {
+    for (T element : this) {
+      if (element.equals(value)) {
         return true;
       }
     }
@@ -127,8 +133,36 @@ public class LinkedList<T> {
    * @param list LinkedList to get all nodes from to add
    */
   public void addAll(LinkedList<T> list) {
-    for (int i = 0; i < list.size(); i++) {
-      this.append(list.get(i));
+    for (T value : list) {
+      this.append(value);
     }
   }
+
+  /**
+   * Iterates through the values of the LinkedList from head to tail, following the next pointers so
+   * a full traversal is linear rather than calling {@link #get(int)} for each index.
+   *
+   * @return iterator over the values of the LinkedList
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private Node<T> next = head;
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public T next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        T value = next.getValue();
+        next = next.getNext();
+        return value;
+      }
+    };
+  }
 }
@@ -0,0 +1,137 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Breadth first search from many sources at once, which finds the number of edges on a shortest
+ * path from each source to every vertex. Sources are searched in batches of 64, with one bit of a
+ * long per source of the batch. Each vertex keeps a mask of the sources that have seen it and a
+ * mask of the sources whose frontier it is on, so every edge is scanned once per level for the
+ * whole batch rather than once per source.
+ */
+public class MultiSourceBfs {
+  // Number of sources searched together, one per bit of a long
+  private static final int BATCH_SIZE = Long.SIZE;
+  private static final int UNREACHABLE = -1;
+
+  private final int[] sources;
+  private final int[][] distances;
+
+  /**
+   * Searches from every source.
+   *
+   * @param index primitive index of the graph
+   * @param sources ids of the vertices to search from, which may repeat
+   */
+  public MultiSourceBfs(GraphIndex<?> index, int[] sources) {
+    this.sources = sources.clone();
+    int vertexCount = index.vertexCount();
+    distances = new int[sources.length][vertexCount];
+    for (int[] row : distances) {
+      Arrays.fill(row, UNREACHABLE);
+    }
+
+    long[] seen = new long[vertexCount];
+    long[] visit = new long[vertexCount];
+    long[] visitNext = new long[vertexCount];
+    int[] frontier = new int[vertexCount];
+    int[] nextFrontier = new int[vertexCount];
+
+    for (int first = 0; first < sources.length; first += BATCH_SIZE) {
+      int batchSize = Math.min(BATCH_SIZE, sources.length - first);
+      Arrays.fill(seen, 0);
+      int frontierSize = 0;
+
+      for (int bit = 0; bit < batchSize; bit++) {
+        int source = sources[first + bit];
+        if (visit[source] == 0) {
+          frontier[frontierSize++] = source;
+        }
+        seen[source] |= 1L << bit;
+        visit[source] |= 1L << bit;
+        distances[first + bit][source] = 0;
+      }
+
+      for (int depth = 1; frontierSize > 0; depth++) {
+        int nextSize = 0;
+        for (int i = 0; i < frontierSize; i++) {
+          int vertex = frontier[i];
+          long searches = visit[vertex];
+          for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+            int neighbour = index.target(edge);
+            // The searches on the frontier at vertex that have not yet reached the neighbour
+            long arriving = searches & ~seen[neighbour];
+            if (arriving != 0) {
+              if (visitNext[neighbour] == 0) {
+                nextFrontier[nextSize++] = neighbour;
+              }
+              visitNext[neighbour] |= arriving;
+              seen[neighbour] |= arriving;
+            }
+          }
+          visit[vertex] = 0;
+        }
+
+        // Record the depth for every search that reached each vertex on the next frontier
+        for (int i = 0; i < nextSize; i++) {
+          int vertex = nextFrontier[i];
+          for (long arrived = visitNext[vertex]; arrived != 0; arrived &= arrived - 1) {
+            distances[first + Long.numberOfTrailingZeros(arrived)][vertex] = depth;
+          }
+          visit[vertex] = visitNext[vertex];
+          visitNext[vertex] = 0;
+        }
+
+        int[] swap = frontier;
+        frontier = nextFrontier;
+        nextFrontier = swap;
+        frontierSize = nextSize;
+      }
+    }
+  }
+
+  /**
+   * Number of sources searched from.
+   *
+   * @return int number of sources
+   */
+  public int sourceCount() {
+    return sources.length;
+  }
+
+  /**
+   * Gets a source that was searched from.
+   *
+   * @param position position of the source in the order they were given
+   * @return id of the source vertex
+   */
+  public int source(int position) {
+    return sources[position];
+  }
+
+  /**
+   * Checks if a source can reach a vertex.
+   *
+   * @param position position of the source in the order they were given
+   * @param vertex id of the vertex
+   * @return true if there is a path from the source to the vertex, false otherwise
+   */
+  public boolean isReachable(int position, int vertex) {
+    return distances[position][vertex] != UNREACHABLE;
+  }
+
+  /**
+   * Gets the number of edges on a shortest path from a source to a vertex.
+   *
+   * @param position position of the source in the order they were given
+   * @param vertex id of the vertex
+   * @return number of edges, or -1 if the source cannot reach the vertex
+   */
+  public int distance(int position, int vertex) {
+    return distances[position][vertex];
+  }
+}
@@ -0,0 +1,136 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A vertex dictionary kept outside the heap. Each vertex is stored as the UTF-8 bytes of its string
+ * form, one after another in id order, and found again through an open-addressing hash table of
+ * ids. No vertex objects are kept, so {@link #getVertex(int)} creates a new string each time it is
+ * called, which means the verticies must be strings, as they are for {@link Graph}.
+ *
+ * @param <T> The type of each vertex, which must be {@link String}.
+ */
+class OffHeapVertexDictionary<T> implements VertexDictionary<T> {
+  // Slot of the hash table that holds no id
+  private static final int EMPTY = -1;
+
+  private final int size;
+  private final ByteBuffer names;
+  private final IntBuffer nameOffsets;
+  private final IntBuffer table;
+
+  /**
+   * Creates the dictionary.
+   *
+   * @param verticies every vertex, in increasing order
+   */
+  OffHeapVertexDictionary(Object[] verticies) {
+    size = verticies.length;
+    byte[][] encoded = new byte[size][];
+    int totalBytes = 0;
+    for (int id = 0; id < size; id++) {
+      encoded[id] = verticies[id].toString().getBytes(StandardCharsets.UTF_8);
+      totalBytes += encoded[id].length;
+    }
+
+    names = GraphStorage.OFF_HEAP.allocateBytes(totalBytes);
+    nameOffsets = GraphStorage.OFF_HEAP.allocateInts(size + 1);
+    for (int id = 0; id < size; id++) {
+      names.put(encoded[id]);
+      nameOffsets.put(id + 1, names.position());
+    }
+
+    // Keep the table at most half full so probes stay short
+    int capacity = Integer.highestOneBit(Math.max(1, size) * 2) * 2;
+    table = GraphStorage.OFF_HEAP.allocateInts(capacity);
+    for (int slot = 0; slot < capacity; slot++) {
+      table.put(slot, EMPTY);
+    }
+    for (int id = 0; id < size; id++) {
+      int slot = hash(verticies[id].toString()) & (capacity - 1);
+      while (table.get(slot) != EMPTY) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      table.put(slot, id);
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int getId(T vertex) {
+    String name = vertex.toString();
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    int mask = table.capacity() - 1;
+
+    for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+      int id = table.get(slot);
+      if (id == EMPTY) {
+        return -1;
+      }
+      if (nameEquals(id, bytes)) {
+        return id;
+      }
+    }
+  }
+
+  /**
+   * Helper method that compares the stored name of a vertex with some bytes.
+   *
+   * @param id id of the vertex
+   * @param bytes UTF-8 bytes to compare with
+   * @return true if the name of the vertex is exactly those bytes, false otherwise
+   */
+  private boolean nameEquals(int id, byte[] bytes) {
+    int start = nameOffsets.get(id);
+    if (nameOffsets.get(id + 1) - start != bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < bytes.length; i++) {
+      if (names.get(start + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T getVertex(int id) {
+    int start = nameOffsets.get(id);
+    byte[] bytes = new byte[nameOffsets.get(id + 1) - start];
+    // Absolute reads leave the buffer position alone, so threads can read at once
+    names.get(start, bytes);
+    return (T) new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public long estimateHeapBytes() {
+    return 0;
+  }
+
+  @Override
+  public long estimateOffHeapBytes() {
+    return names.capacity() + (nameOffsets.capacity() + table.capacity()) * 4L;
+  }
+
+  /**
+   * Helper method that spreads the hash code of a name over every bit.
+   *
+   * @param name string form of a vertex
+   * @return hash of the name
+   */
+  private static int hash(String name) {
+    int hash = name.hashCode() * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
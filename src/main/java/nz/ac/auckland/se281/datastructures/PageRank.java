@@ -0,0 +1,151 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * PageRank of every vertex of a graph, found by power iteration. Each iteration pulls rank along
+ * the reverse rows of the index, so every vertex only writes its own score and ranges of verticies
+ * are updated in parallel without locks. Rank held by verticies with no outgoing edges is spread
+ * evenly over every vertex, so the scores always sum to 1. Iteration stops once the scores change
+ * by less than the tolerance in total, or after the maximum number of iterations.
+ *
+ * <p>Each range sums its own part of the dangling rank and of the change, and the parts are then
+ * added in range order, so the scores are the same however the ranges were scheduled.
+ */
+public class PageRank {
+  public static final double DEFAULT_DAMPING = 0.85;
+  public static final double DEFAULT_TOLERANCE = 1e-6;
+  public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+  // Number of verticies updated by each parallel task
+  private static final int RANGE_SIZE = 4096;
+
+  private final VertexScores scores;
+  private final int iterations;
+  private final double residual;
+
+  /**
+   * Ranks an indexed graph with the default damping, tolerance and maximum iterations.
+   *
+   * @param index primitive index of the graph
+   */
+  public PageRank(GraphIndex<?> index) {
+    this(index, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+  }
+
+  /**
+   * Ranks an indexed graph.
+   *
+   * @param index primitive index of the graph
+   * @param damping probability of following an edge rather than jumping to any vertex
+   * @param tolerance total change of the scores below which iteration stops
+   * @param maxIterations largest number of iterations
+   */
+  public PageRank(GraphIndex<?> index, double damping, double tolerance, int maxIterations) {
+    int vertexCount = index.vertexCount();
+    int rangeCount = (vertexCount + RANGE_SIZE - 1) / RANGE_SIZE;
+    double[] rank = new double[vertexCount];
+    double[] next = new double[vertexCount];
+    // Rank each vertex passes along each of its edges
+    double[] share = new double[vertexCount];
+    double[] partials = new double[rangeCount];
+    Arrays.fill(rank, 1.0 / vertexCount);
+
+    int iteration = 0;
+    double change = vertexCount == 0 ? 0 : Double.POSITIVE_INFINITY;
+    while (iteration < maxIterations && change >= tolerance) {
+      final double[] current = rank;
+      IntStream.range(0, rangeCount)
+          .parallel()
+          .forEach(
+              range -> {
+                double dangling = 0;
+                int to = Math.min(vertexCount, (range + 1) * RANGE_SIZE);
+                for (int vertex = range * RANGE_SIZE; vertex < to; vertex++) {
+                  int degree = index.end(vertex) - index.start(vertex);
+                  if (degree == 0) {
+                    dangling += current[vertex];
+                  }
+                  share[vertex] = degree == 0 ? 0 : current[vertex] / degree;
+                }
+                partials[range] = dangling;
+              });
+      final double base = (1 - damping + damping * sum(partials)) / vertexCount;
+
+      final double[] updated = next;
+      IntStream.range(0, rangeCount)
+          .parallel()
+          .forEach(
+              range -> {
+                double difference = 0;
+                int to = Math.min(vertexCount, (range + 1) * RANGE_SIZE);
+                for (int vertex = range * RANGE_SIZE; vertex < to; vertex++) {
+                  double incoming = 0;
+                  for (int edge = index.reverseStart(vertex);
+                      edge < index.reverseEnd(vertex);
+                      edge++) {
+                    incoming += share[index.source(edge)];
+                  }
+                  updated[vertex] = base + damping * incoming;
+                  difference += Math.abs(updated[vertex] - current[vertex]);
+                }
+                partials[range] = difference;
+              });
+
+      change = sum(partials);
+      next = rank;
+      rank = updated;
+      iteration++;
+    }
+
+    scores = new VertexScores(rank);
+    iterations = iteration;
+    residual = change;
+  }
+
+  /**
+   * Helper method that adds up the parts computed by each range, in range order.
+   *
+   * @param partials part of each range
+   * @return sum of the parts
+   */
+  private static double sum(double[] partials) {
+    double total = 0;
+    for (double partial : partials) {
+      total += partial;
+    }
+    return total;
+  }
+
+  /**
+   * Gets the PageRank of every vertex.
+   *
+   * @return scores indexed by vertex id, which sum to 1
+   */
+  public VertexScores scores() {
+    return scores;
+  }
+
+  /**
+   * Number of iterations that were run.
+   *
+   * @return int number of iterations
+   */
+  public int iterations() {
+    return iterations;
+  }
+
+  /**
+   * Total change of the scores in the last iteration.
+   *
+   * @return change of the scores, summed over every vertex
+   */
+  public double residual() {
+    return residual;
+  }
+}
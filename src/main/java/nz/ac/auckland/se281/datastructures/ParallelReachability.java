@@ -0,0 +1,167 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The set of verticies reachable from some sources, found by a traversal that gives up any visit
+ * order for throughput. Work is split into fork-join tasks that each walk a stack of verticies over
+ * the rows of a {@link CompressedAdjacency}, and idle threads steal tasks from busy ones. A task
+ * that finds more verticies than it needs forks half of its stack off as a new task. Threads claim
+ * each vertex by setting its bit in an atomic bitset, so every vertex is expanded exactly once
+ * however the tasks race.
+ *
+ * <p>Only the set is kept, as a bitset over the labels of the adjacency, and it can be read back as
+ * a sorted array of vertex ids.
+ */
+public class ParallelReachability {
+  // A task forks half of its stack off once it holds this many verticies
+  private static final int SPLIT_SIZE = 256;
+
+  private final CompressedAdjacency adjacency;
+  private final AtomicLongArray reached;
+
+  /**
+   * Finds every vertex reachable from the sources by zero or more edges.
+   *
+   * @param adjacency compressed rows of the graph
+   * @param sources ids of the verticies to search from, which may repeat
+   */
+  public ParallelReachability(CompressedAdjacency adjacency, int[] sources) {
+    this.adjacency = adjacency;
+    reached = new AtomicLongArray((adjacency.vertexCount() + 63) >>> 6);
+
+    int[] stack = new int[Math.max(sources.length, SPLIT_SIZE)];
+    int size = 0;
+    for (int source : sources) {
+      int label = adjacency.label(source);
+      if (claim(label)) {
+        stack[size++] = label;
+      }
+    }
+    ForkJoinPool.commonPool().invoke(new Search(stack, size));
+  }
+
+  /**
+   * Helper method that sets the bit of a label unless another thread set it first.
+   *
+   * @param label label of the vertex
+   * @return true if this call set the bit, false if it was already set
+   */
+  private boolean claim(int label) {
+    int word = label >>> 6;
+    long bit = 1L << label;
+    while (true) {
+      long bits = reached.get(word);
+      if ((bits & bit) != 0) {
+        return false;
+      }
+      if (reached.compareAndSet(word, bits, bits | bit)) {
+        return true;
+      }
+    }
+  }
+
+  /** A task that expands every vertex on its stack and every vertex those reach in turn. */
+  private class Search extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private int[] stack;
+    private int size;
+
+    /**
+     * Creates a task that owns a stack of claimed verticies.
+     *
+     * @param stack labels of the verticies to expand
+     * @param size number of labels on the stack
+     */
+    private Search(int[] stack, int size) {
+      this.stack = stack;
+      this.size = size;
+    }
+
+    @Override
+    protected void compute() {
+      List<Search> forked = new ArrayList<Search>();
+
+      while (size > 0) {
+        if (size >= SPLIT_SIZE) {
+          // Give the bottom half of the stack to a task that any idle thread can steal
+          int half = size / 2;
+          Search split = new Search(Arrays.copyOf(stack, Math.max(half, SPLIT_SIZE)), half);
+          System.arraycopy(stack, half, stack, 0, size - half);
+          size -= half;
+          split.fork();
+          forked.add(split);
+        }
+
+        adjacency.forEachNeighbour(
+            stack[--size],
+            neighbour -> {
+              if (claim(neighbour)) {
+                if (size == stack.length) {
+                  stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[size++] = neighbour;
+              }
+            });
+      }
+
+      for (Search task : forked) {
+        task.join();
+      }
+    }
+  }
+
+  /**
+   * Checks if a vertex is reachable.
+   *
+   * @param vertex id of the vertex
+   * @return true if a source reaches the vertex, false otherwise
+   */
+  public boolean isReachable(int vertex) {
+    int label = adjacency.label(vertex);
+    return (reached.get(label >>> 6) & (1L << label)) != 0;
+  }
+
+  /**
+   * Counts the reachable verticies.
+   *
+   * @return number of verticies the sources reach, including the sources
+   */
+  public int count() {
+    int count = 0;
+    for (int word = 0; word < reached.length(); word++) {
+      count += Long.bitCount(reached.get(word));
+    }
+    return count;
+  }
+
+  /**
+   * Lists the reachable verticies.
+   *
+   * @return ids of the reachable verticies in increasing order
+   */
+  public int[] toSortedArray() {
+    int[] verticies = new int[count()];
+    int size = 0;
+    for (int word = 0; word < reached.length(); word++) {
+      for (long bits = reached.get(word); bits != 0; bits &= bits - 1) {
+        verticies[size++] = adjacency.vertex((word << 6) + Long.numberOfTrailingZeros(bits));
+      }
+    }
+    // Labels are already in id order unless the adjacency was relabelled
+    if (adjacency.getOrdering() != VertexOrdering.NONE) {
+      Arrays.sort(verticies);
+    }
+    return verticies;
+  }
+}
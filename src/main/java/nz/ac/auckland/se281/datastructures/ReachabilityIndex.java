@@ -0,0 +1,238 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index that answers whether one vertex can reach another, built once over the condensation of a
+ * graph. Verticies in the same strongly connected component always reach each other, so only
+ * queries between components need the index.
+ *
+ * <p>Condensations of up to {@link TransitiveClosure#DENSE_LIMIT} components answer from the
+ * dense rows of their {@link TransitiveClosure}, so a query is a single bit test, and a snapshot
+ * shares one closure between its reachability queries and its closure listing. Larger
+ * condensations, where a dense closure would not fit in memory, store interval labels instead: each
+ * component gets a post-order number from a depth first traversal and the smallest post-order
+ * number it can reach. A component can only reach another if its interval contains the other's
+ * interval and it is further from the sinks, which rules out most negative queries immediately.
+ * The remaining queries run a depth first search that skips every component the labels rule out.
+ */
+public class ReachabilityIndex {
+  private static final int LABEL_COUNT = 2;
+
+  private final StronglyConnectedComponents components;
+  private final TransitiveClosure closure;
+  private final int[][] post;
+  private final int[][] low;
+  private final int[] height;
+
+  /**
+   * Builds the index, choosing the closure or interval labels by the size of the condensation.
+   *
+   * @param index primitive index of the graph
+   * @param components components and condensation of the graph
+   */
+  public ReachabilityIndex(GraphIndex<?> index, StronglyConnectedComponents components) {
+    this(
+        components,
+        components.componentCount() <= TransitiveClosure.DENSE_LIMIT
+            ? new TransitiveClosure(index, components)
+            : null);
+  }
+
+  /**
+   * Builds the index over a closure that has already been computed, or over interval labels if
+   * there is no closure.
+   *
+   * @param components components and condensation of the graph
+   * @param closure transitive closure of the graph, or null to use interval labels
+   */
+  public ReachabilityIndex(StronglyConnectedComponents components, TransitiveClosure closure) {
+    this.components = components;
+    this.closure = closure;
+
+    if (closure != null) {
+      post = null;
+      low = null;
+      height = null;
+    } else {
+      post = new int[LABEL_COUNT][];
+      low = new int[LABEL_COUNT][];
+      for (int label = 0; label < LABEL_COUNT; label++) {
+        post[label] = postOrder(label % 2 == 1);
+        low[label] = lowestReachable(post[label]);
+      }
+      height = heights();
+    }
+  }
+
+  /**
+   * Helper method that numbers the components in the post-order of an iterative depth first
+   * traversal of the condensation, starting from every source component.
+   *
+   * @param reversed true to explore successors from last to first, giving a different labelling
+   * @return post-order number of each component
+   */
+  private int[] postOrder(boolean reversed) {
+    int count = components.componentCount();
+    int[] order = new int[count];
+    Arrays.fill(order, -1);
+    boolean[] visited = new boolean[count];
+    int[] stack = new int[count];
+    int[] nextEdge = new int[count];
+    int next = 0;
+
+    for (int start = 0; start < count; start++) {
+      int root = reversed ? count - 1 - start : start;
+      if (visited[root]) {
+        continue;
+      }
+      visited[root] = true;
+      int size = 0;
+      stack[size++] = root;
+      nextEdge[root] = 0;
+
+      while (size > 0) {
+        int component = stack[size - 1];
+        int first = components.successorStart(component);
+        int degree = components.successorEnd(component) - first;
+
+        if (nextEdge[component] < degree) {
+          int position = nextEdge[component]++;
+          int successor =
+              components.successor(reversed ? first + degree - 1 - position : first + position);
+          if (!visited[successor]) {
+            visited[successor] = true;
+            nextEdge[successor] = 0;
+            stack[size++] = successor;
+          }
+        } else {
+          order[component] = next++;
+          size--;
+        }
+      }
+    }
+    return order;
+  }
+
+  /**
+   * Helper method that finds the smallest post-order number reachable from each component.
+   *
+   * @param order post-order number of each component
+   * @return lower end of the interval label of each component
+   */
+  private int[] lowestReachable(int[] order) {
+    int[] lowest = new int[order.length];
+    for (int component = 0; component < order.length; component++) {
+      lowest[component] = order[component];
+      for (int edge = components.successorStart(component);
+          edge < components.successorEnd(component);
+          edge++) {
+        lowest[component] = Math.min(lowest[component], lowest[components.successor(edge)]);
+      }
+    }
+    return lowest;
+  }
+
+  /**
+   * Helper method that finds the length of the longest path from each component to a sink.
+   *
+   * @return height of each component
+   */
+  private int[] heights() {
+    int[] heights = new int[components.componentCount()];
+    for (int component = 0; component < heights.length; component++) {
+      for (int edge = components.successorStart(component);
+          edge < components.successorEnd(component);
+          edge++) {
+        heights[component] = Math.max(heights[component], heights[components.successor(edge)] + 1);
+      }
+    }
+    return heights;
+  }
+
+  /**
+   * Checks if there is a path between two verticies. Every vertex reaches itself.
+   *
+   * @param source id of the vertex the path leaves from
+   * @param destination id of the vertex the path arrives at
+   * @return true if destination is reachable from source, false otherwise
+   */
+  public boolean canReach(int source, int destination) {
+    int from = components.componentOf(source);
+    int to = components.componentOf(destination);
+
+    if (from == to) {
+      return true;
+    }
+    if (closure != null) {
+      return closure.hasEdge(source, destination);
+    }
+    if (!mayReach(from, to)) {
+      return false;
+    }
+
+    // Search the components the labels cannot rule out
+    BitSet visited = new BitSet();
+    int[] stack = new int[16];
+    int size = 0;
+    stack[size++] = from;
+    visited.set(from);
+
+    while (size > 0) {
+      int component = stack[--size];
+      for (int edge = components.successorStart(component);
+          edge < components.successorEnd(component);
+          edge++) {
+        int successor = components.successor(edge);
+        if (successor == to) {
+          return true;
+        }
+        if (!visited.get(successor) && mayReach(successor, to)) {
+          visited.set(successor);
+          if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+          }
+          stack[size++] = successor;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Helper method that checks the interval labels and heights of two different components. A false
+   * result is exact, a true result still needs to be confirmed by a search.
+   *
+   * @param from component the path leaves from
+   * @param to component the path arrives at
+   * @return false if from definitely cannot reach to, true if it might
+   */
+  private boolean mayReach(int from, int to) {
+    if (height[from] <= height[to]) {
+      return false;
+    }
+    for (int label = 0; label < LABEL_COUNT; label++) {
+      if (low[label][to] < low[label][from] || post[label][to] > post[label][from]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the index, not counting a closure it shares.
+   *
+   * @return approximate memory footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    if (closure != null) {
+      return 0;
+    }
+    return components.componentCount() * (LABEL_COUNT * 8L + 4);
+  }
+}
@@ -0,0 +1,156 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Every relation property of a graph, evaluated together in one pass over its edges. The verticies
+ * are split into fixed ranges that are evaluated in parallel. For each edge of its range, a task
+ * counts self-loops, looks up the reverse edge in an {@link EdgeKeySet}, and checks that every path
+ * of two edges starting with it is closed by an edge. The counts of the ranges are then added up,
+ * and equivalence follows from the other properties without looking at the edges again.
+ *
+ * <p>Once one task finds a path of two edges that is not closed, the graph cannot be transitive, so
+ * every task stops checking paths and only finishes counting.
+ */
+public class RelationProperties {
+  // Number of verticies evaluated by each parallel task
+  private static final int RANGE_SIZE = 2048;
+
+  private final boolean reflexive;
+  private final boolean symmetric;
+  private final boolean transitive;
+  private final boolean antiSymmetric;
+
+  /**
+   * Evaluates every property of an indexed graph.
+   *
+   * @param index primitive index of the graph
+   * @param edges every edge of the graph
+   */
+  public RelationProperties(GraphIndex<?> index, EdgeKeySet edges) {
+    int vertexCount = index.vertexCount();
+    int rangeCount = (vertexCount + RANGE_SIZE - 1) / RANGE_SIZE;
+    AtomicBoolean intransitive = new AtomicBoolean();
+
+    long[] counts =
+        IntStream.range(0, rangeCount)
+            .parallel()
+            .mapToObj(
+                range ->
+                    evaluate(
+                        index,
+                        edges,
+                        range * RANGE_SIZE,
+                        Math.min(vertexCount, (range + 1) * RANGE_SIZE),
+                        intransitive))
+            .reduce(new long[2], (a, b) -> new long[] {a[0] + b[0], a[1] + b[1]});
+    long selfLoops = counts[0];
+    long mutualEdges = counts[1];
+
+    reflexive = selfLoops == vertexCount;
+    symmetric = mutualEdges == index.edgeCount() - selfLoops;
+    transitive = !intransitive.get();
+    antiSymmetric = mutualEdges == 0;
+  }
+
+  /**
+   * Helper method that evaluates the edges leaving a range of verticies.
+   *
+   * @param index primitive index of the graph
+   * @param edges every edge of the graph
+   * @param from first vertex of the range
+   * @param to vertex after the last vertex of the range
+   * @param intransitive set once any path of two edges is found that is not closed
+   * @return number of self-loops and number of edges other than self-loops with a reverse edge
+   */
+  private static long[] evaluate(
+      GraphIndex<?> index, EdgeKeySet edges, int from, int to, AtomicBoolean intransitive) {
+    long selfLoops = 0;
+    long mutualEdges = 0;
+
+    for (int vertex1 = from; vertex1 < to; vertex1++) {
+      for (int edge = index.start(vertex1); edge < index.end(vertex1); edge++) {
+        int vertex2 = index.target(edge);
+        if (vertex1 == vertex2) {
+          selfLoops++;
+        } else if (edges.contains(vertex2, vertex1)) {
+          mutualEdges++;
+        }
+
+        if (!intransitive.get() && !closesPaths(index, edges, vertex1, vertex2)) {
+          intransitive.set(true);
+        }
+      }
+    }
+    return new long[] {selfLoops, mutualEdges};
+  }
+
+  /**
+   * Helper method that checks that every path of two edges starting with an edge is closed.
+   *
+   * @param index primitive index of the graph
+   * @param edges every edge of the graph
+   * @param vertex1 vertex the first edge leaves from
+   * @param vertex2 vertex the first edge arrives at
+   * @return true if vertex1 has an edge to every vertex vertex2 has an edge to, false otherwise
+   */
+  private static boolean closesPaths(
+      GraphIndex<?> index, EdgeKeySet edges, int vertex1, int vertex2) {
+    for (int edge = index.start(vertex2); edge < index.end(vertex2); edge++) {
+      if (!edges.contains(vertex1, index.target(edge))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if every vertex has a self-loop.
+   *
+   * @return true if the graph is reflexive, false otherwise
+   */
+  public boolean isReflexive() {
+    return reflexive;
+  }
+
+  /**
+   * Checks if every edge has its reverse edge.
+   *
+   * @return true if the graph is symmetric, false otherwise
+   */
+  public boolean isSymmetric() {
+    return symmetric;
+  }
+
+  /**
+   * Checks if every path of two edges is closed by an edge.
+   *
+   * @return true if the graph is transitive, false otherwise
+   */
+  public boolean isTransitive() {
+    return transitive;
+  }
+
+  /**
+   * Checks if no edge other than a self-loop has its reverse edge.
+   *
+   * @return true if the graph is antisymmetric, false otherwise
+   */
+  public boolean isAntiSymmetric() {
+    return antiSymmetric;
+  }
+
+  /**
+   * Checks if the graph is reflexive, symmetric and transitive.
+   *
+   * @return true if the graph is an equivalence relation, false otherwise
+   */
+  public boolean isEquivalence() {
+    return reflexive && symmetric && transitive;
+  }
+}
@@ -0,0 +1,274 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a graph and its condensation, the directed acyclic graph
+ * with one vertex per component and an edge between two components when an edge of the graph
+ * connects them. Components are found with Tarjan's algorithm in O(V + E), using explicit stacks
+ * instead of recursion so deep graphs cannot overflow the call stack.
+ *
+ * <p>Tarjan's algorithm completes a component only after every component it reaches, so component
+ * ids are in reverse topological order: every condensation edge goes from a higher id to a lower
+ * id.
+ */
+public class StronglyConnectedComponents {
+  private static final int UNVISITED = -1;
+
+  private final int[] componentOf;
+  private final int componentCount;
+  private final int[] memberOffsets;
+  private final int[] members;
+  private final int[] successorOffsets;
+  private final int[] successors;
+  private final int[] inDegree;
+
+  /**
+   * Computes the components and the condensation of an indexed graph.
+   *
+   * @param index primitive index of the graph
+   */
+  public StronglyConnectedComponents(GraphIndex<?> index) {
+    int vertexCount = index.vertexCount();
+    componentOf = new int[vertexCount];
+    componentCount = findComponents(index);
+
+    // Group the members of each component, in increasing id order so the first is the minimum
+    memberOffsets = new int[componentCount + 1];
+    members = new int[vertexCount];
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      memberOffsets[componentOf[vertex] + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      memberOffsets[component + 1] += memberOffsets[component];
+    }
+    int[] fill = Arrays.copyOf(memberOffsets, componentCount);
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      members[fill[componentOf[vertex]]++] = vertex;
+    }
+
+    // Materialise the condensation, storing each edge between two components once
+    successorOffsets = new int[componentCount + 1];
+    inDegree = new int[componentCount];
+    int[] lastSeenFrom = new int[componentCount];
+    Arrays.fill(lastSeenFrom, UNVISITED);
+    int[] dagEdges = new int[Math.max(16, componentCount)];
+    int dagEdgeCount = 0;
+
+    for (int component = 0; component < componentCount; component++) {
+      for (int member = memberOffsets[component]; member < memberOffsets[component + 1]; member++) {
+        int vertex = members[member];
+        for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+          int successor = componentOf[index.target(edge)];
+          if (successor != component && lastSeenFrom[successor] != component) {
+            lastSeenFrom[successor] = component;
+            if (dagEdgeCount == dagEdges.length) {
+              dagEdges = Arrays.copyOf(dagEdges, dagEdgeCount * 2);
+            }
+            dagEdges[dagEdgeCount++] = successor;
+            inDegree[successor]++;
+          }
+        }
+      }
+      successorOffsets[component + 1] = dagEdgeCount;
+      Arrays.sort(dagEdges, successorOffsets[component], dagEdgeCount);
+    }
+    successors = Arrays.copyOf(dagEdges, dagEdgeCount);
+  }
+
+  /**
+   * Helper method that runs an iterative Tarjan's algorithm, filling componentOf.
+   *
+   * @param index primitive index of the graph
+   * @return int number of components found
+   */
+  private int findComponents(GraphIndex<?> index) {
+    int vertexCount = index.vertexCount();
+    int[] discovered = new int[vertexCount];
+    int[] lowLink = new int[vertexCount];
+    Arrays.fill(discovered, UNVISITED);
+    Arrays.fill(componentOf, UNVISITED);
+
+    // Verticies whose component is not yet known, in discovery order
+    int[] pending = new int[vertexCount];
+    int pendingSize = 0;
+    // Simulated call stack, with the next edge each vertex on it still has to explore
+    int[] callStack = new int[vertexCount];
+    int[] nextEdge = new int[vertexCount];
+    int callStackSize = 0;
+
+    int discoveryCount = 0;
+    int count = 0;
+
+    for (int root = 0; root < vertexCount; root++) {
+      if (discovered[root] != UNVISITED) {
+        continue;
+      }
+      discovered[root] = discoveryCount;
+      lowLink[root] = discoveryCount++;
+      pending[pendingSize++] = root;
+      nextEdge[root] = index.start(root);
+      callStack[callStackSize++] = root;
+
+      while (callStackSize > 0) {
+        int vertex = callStack[callStackSize - 1];
+
+        if (nextEdge[vertex] < index.end(vertex)) {
+          int neighbour = index.target(nextEdge[vertex]++);
+          if (discovered[neighbour] == UNVISITED) {
+            // Descend into the neighbour as a recursive call would
+            discovered[neighbour] = discoveryCount;
+            lowLink[neighbour] = discoveryCount++;
+            pending[pendingSize++] = neighbour;
+            nextEdge[neighbour] = index.start(neighbour);
+            callStack[callStackSize++] = neighbour;
+          } else if (componentOf[neighbour] == UNVISITED) {
+            // The neighbour is still pending, so it is part of the current component
+            lowLink[vertex] = Math.min(lowLink[vertex], discovered[neighbour]);
+          }
+          continue;
+        }
+
+        // Every edge has been explored, so return to the caller
+        callStackSize--;
+        if (callStackSize > 0) {
+          int caller = callStack[callStackSize - 1];
+          lowLink[caller] = Math.min(lowLink[caller], lowLink[vertex]);
+        }
+
+        if (lowLink[vertex] == discovered[vertex]) {
+          // The vertex is the first discovered of its component, which is now complete
+          int member;
+          do {
+            member = pending[--pendingSize];
+            componentOf[member] = count;
+          } while (member != vertex);
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Number of strongly connected components.
+   *
+   * @return int number of components
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Gets the component a vertex belongs to.
+   *
+   * @param vertex id of the vertex
+   * @return id of the component
+   */
+  public int componentOf(int vertex) {
+    return componentOf[vertex];
+  }
+
+  /**
+   * Number of verticies in a component.
+   *
+   * @param component id of the component
+   * @return int number of member verticies
+   */
+  public int size(int component) {
+    return memberOffsets[component + 1] - memberOffsets[component];
+  }
+
+  /**
+   * Gets the member of a component with the smallest id.
+   *
+   * @param component id of the component
+   * @return id of the representative vertex
+   */
+  public int representative(int component) {
+    return members[memberOffsets[component]];
+  }
+
+  /**
+   * Position of the first member of a component.
+   *
+   * @param component id of the component
+   * @return index of the first member to pass to {@link #member(int)}
+   */
+  public int memberStart(int component) {
+    return memberOffsets[component];
+  }
+
+  /**
+   * Position after the last member of a component.
+   *
+   * @param component id of the component
+   * @return index after the last member to pass to {@link #member(int)}
+   */
+  public int memberEnd(int component) {
+    return memberOffsets[component + 1];
+  }
+
+  /**
+   * Gets a member of a component, members are sorted by id.
+   *
+   * @param position index of the member
+   * @return id of the member vertex
+   */
+  public int member(int position) {
+    return members[position];
+  }
+
+  /**
+   * Position of the first condensation edge leaving a component.
+   *
+   * @param component id of the component
+   * @return index of the first edge to pass to {@link #successor(int)}
+   */
+  public int successorStart(int component) {
+    return successorOffsets[component];
+  }
+
+  /**
+   * Position after the last condensation edge leaving a component.
+   *
+   * @param component id of the component
+   * @return index after the last edge to pass to {@link #successor(int)}
+   */
+  public int successorEnd(int component) {
+    return successorOffsets[component + 1];
+  }
+
+  /**
+   * Gets the destination of a condensation edge.
+   *
+   * @param edge index of the condensation edge
+   * @return id of the destination component
+   */
+  public int successor(int edge) {
+    return successors[edge];
+  }
+
+  /**
+   * Number of condensation edges.
+   *
+   * @return int number of edges between components
+   */
+  public int condensationEdgeCount() {
+    return successors.length;
+  }
+
+  /**
+   * Checks if no edge from another component arrives at a component.
+   *
+   * @param component id of the component
+   * @return true if the component is a source of the condensation, false otherwise
+   */
+  public boolean isSource(int component) {
+    return inDegree[component] == 0;
+  }
+}
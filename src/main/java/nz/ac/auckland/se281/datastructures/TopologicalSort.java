@@ -0,0 +1,148 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * A topological order of a graph found with Kahn's algorithm, one layer at a time. Layer 0 holds
+ * the verticies that no edge arrives at, and layer k + 1 holds the verticies whose last incoming
+ * edge leaves layer k, so the layer of a vertex is the length of the longest path that ends at it.
+ *
+ * <p>The verticies of a layer are independent of each other, so large layers are processed in
+ * parallel. Each vertex decrements the in-degree of its targets atomically, and the one decrement
+ * that reaches zero moves the target into the next layer. Every layer is then sorted by id, so the
+ * order is the same however the work was scheduled. Verticies on a cycle, or only reachable through
+ * one, never reach an in-degree of zero and are left out of the order.
+ */
+public class TopologicalSort {
+  // Layers smaller than this are processed on the calling thread
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private final int[] order;
+  private final int[] layerOffsets;
+  private final int[] layerOf;
+
+  /**
+   * Sorts an indexed graph in O(V + E) work.
+   *
+   * @param index primitive index of the graph
+   */
+  public TopologicalSort(GraphIndex<?> index) {
+    int vertexCount = index.vertexCount();
+    AtomicIntegerArray inDegree = new AtomicIntegerArray(vertexCount);
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      inDegree.set(vertex, index.reverseEnd(vertex) - index.reverseStart(vertex));
+    }
+
+    order = new int[vertexCount];
+    layerOf = new int[vertexCount];
+    Arrays.fill(layerOf, -1);
+    int[] offsets = new int[vertexCount + 1];
+    int layerCount = 0;
+    int sorted = 0;
+
+    int[] layer =
+        IntStream.range(0, vertexCount).filter(vertex -> inDegree.get(vertex) == 0).toArray();
+    while (layer.length > 0) {
+      for (int vertex : layer) {
+        layerOf[vertex] = layerCount;
+      }
+      System.arraycopy(layer, 0, order, sorted, layer.length);
+      sorted += layer.length;
+      offsets[++layerCount] = sorted;
+      layer = nextLayer(index, inDegree, layer);
+    }
+
+    layerOffsets = Arrays.copyOf(offsets, layerCount + 1);
+  }
+
+  /**
+   * Helper method that removes the edges leaving a layer and collects the verticies left with no
+   * incoming edges.
+   *
+   * @param index primitive index of the graph
+   * @param inDegree number of edges still arriving at each vertex
+   * @param layer verticies of the current layer
+   * @return verticies of the next layer in increasing id order
+   */
+  private static int[] nextLayer(GraphIndex<?> index, AtomicIntegerArray inDegree, int[] layer) {
+    IntStream verticies = IntStream.of(layer);
+    if (layer.length >= PARALLEL_THRESHOLD) {
+      verticies = verticies.parallel();
+    }
+
+    int[] next =
+        verticies
+            .flatMap(
+                vertex ->
+                    IntStream.range(index.start(vertex), index.end(vertex))
+                        .map(index::target)
+                        .filter(target -> inDegree.decrementAndGet(target) == 0))
+            .toArray();
+    Arrays.sort(next);
+    return next;
+  }
+
+  /**
+   * Checks if every vertex was sorted, which is the case exactly when the graph has no cycle.
+   *
+   * @return true if the graph is acyclic, false otherwise
+   */
+  public boolean isAcyclic() {
+    return layerOffsets[layerOffsets.length - 1] == order.length;
+  }
+
+  /**
+   * Gets the number of layers.
+   *
+   * @return number of layers
+   */
+  public int layerCount() {
+    return layerOffsets.length - 1;
+  }
+
+  /**
+   * Gets the layer of a vertex.
+   *
+   * @param vertex id of the vertex
+   * @return layer of the vertex, or -1 if it is on or after a cycle
+   */
+  public int layerOf(int vertex) {
+    return layerOf[vertex];
+  }
+
+  /**
+   * Gets the position in the order where a layer starts.
+   *
+   * @param layer number of the layer
+   * @return position of the first vertex of the layer
+   */
+  public int layerStart(int layer) {
+    return layerOffsets[layer];
+  }
+
+  /**
+   * Gets the position in the order just after a layer ends.
+   *
+   * @param layer number of the layer
+   * @return position after the last vertex of the layer
+   */
+  public int layerEnd(int layer) {
+    return layerOffsets[layer + 1];
+  }
+
+  /**
+   * Gets the vertex at a position in the order.
+   *
+   * @param position position in the order, below the end of the last layer
+   * @return id of the vertex
+   */
+  public int vertexAt(int position) {
+    return order[position];
+  }
+}
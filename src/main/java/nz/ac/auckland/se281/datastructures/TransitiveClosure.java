@@ -0,0 +1,279 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The transitive closure of a graph, which has an edge from one vertex to another whenever the
+ * graph has a path of one or more edges between them. It is built over the condensation: each
+ * component gets a row of the components it reaches by one or more condensation edges, found by
+ * ORing together the rows of its successors and the successors themselves. Component ids are in
+ * reverse topological order, so the components are grouped into levels by their longest path to a
+ * sink, and the rows of one level, which only read rows of lower levels, are built in parallel.
+ *
+ * <p>A vertex reaches every member of the components in the row of its component, and the members
+ * of its own component too if that component has a cycle, which is when it has more than one member
+ * or a self-loop.
+ *
+ * <p>Condensations of up to {@link #DENSE_LIMIT} components keep each row as a long array with a
+ * bit for every component. Larger ones keep each row as a {@link CompressedBitSet}, which only
+ * stores its non-empty words, so sparse graphs do not need a bit for every pair of components.
+ */
+public class TransitiveClosure {
+  /**
+   * Largest condensation that keeps dense rows, using at most 8 MiB of bitsets. Beyond this, even a
+   * closure with few edges would pay a bit for every pair of components.
+   */
+  public static final int DENSE_LIMIT = 8192;
+
+  private final StronglyConnectedComponents components;
+  private final boolean[] cyclic;
+  private final int words;
+  private final long[] denseRows;
+  private final CompressedBitSet[] sparseRows;
+  private final long edgeCount;
+
+  /**
+   * Computes the closure of an indexed graph, choosing dense or compressed rows by the size of its
+   * condensation.
+   *
+   * @param index primitive index of the graph
+   * @param components components and condensation of the graph
+   */
+  public TransitiveClosure(GraphIndex<?> index, StronglyConnectedComponents components) {
+    this(index, components, DENSE_LIMIT);
+  }
+
+  /**
+   * Computes the closure of an indexed graph, keeping dense rows only if there are at most
+   * denseLimit components.
+   *
+   * @param index primitive index of the graph
+   * @param components components and condensation of the graph
+   * @param denseLimit largest number of components to keep dense rows for
+   */
+  public TransitiveClosure(
+      GraphIndex<?> index, StronglyConnectedComponents components, int denseLimit) {
+    this.components = components;
+    int count = components.componentCount();
+
+    cyclic = new boolean[count];
+    for (int component = 0; component < count; component++) {
+      int representative = components.representative(component);
+      cyclic[component] =
+          components.size(component) > 1 || index.findEdge(representative, representative) >= 0;
+    }
+
+    int[][] levels = levels();
+    if (count <= denseLimit) {
+      words = (count + 63) >>> 6;
+      denseRows = new long[count * words];
+      sparseRows = null;
+      for (int[] level : levels) {
+        Arrays.stream(level).parallel().forEach(this::buildDenseRow);
+      }
+    } else {
+      words = 0;
+      denseRows = null;
+      sparseRows = new CompressedBitSet[count];
+      for (int[] level : levels) {
+        Arrays.stream(level).parallel().forEach(this::buildSparseRow);
+      }
+    }
+
+    edgeCount =
+        IntStream.range(0, count)
+            .parallel()
+            .mapToLong(component -> (long) components.size(component) * reachedCount(component))
+            .sum();
+  }
+
+  /**
+   * Helper method that groups the components by the length of their longest path to a sink. Every
+   * successor of a component is on a lower level, so the rows of a level can be built at once.
+   *
+   * @return components of each level, from the sinks up
+   */
+  private int[][] levels() {
+    int count = components.componentCount();
+    int[] height = new int[count];
+    int levelCount = 0;
+    // Successors have lower ids, so their heights are already final
+    for (int component = 0; component < count; component++) {
+      for (int edge = components.successorStart(component);
+          edge < components.successorEnd(component);
+          edge++) {
+        height[component] = Math.max(height[component], height[components.successor(edge)] + 1);
+      }
+      levelCount = Math.max(levelCount, height[component] + 1);
+    }
+
+    int[] sizes = new int[levelCount];
+    for (int component = 0; component < count; component++) {
+      sizes[height[component]]++;
+    }
+    int[][] levels = new int[levelCount][];
+    for (int level = 0; level < levelCount; level++) {
+      levels[level] = new int[sizes[level]];
+      sizes[level] = 0;
+    }
+    for (int component = 0; component < count; component++) {
+      levels[height[component]][sizes[height[component]]++] = component;
+    }
+    return levels;
+  }
+
+  /**
+   * Helper method that builds the dense row of a component from the rows of its successors.
+   *
+   * @param component id of the component
+   */
+  private void buildDenseRow(int component) {
+    int row = component * words;
+    for (int edge = components.successorStart(component);
+        edge < components.successorEnd(component);
+        edge++) {
+      int successor = components.successor(edge);
+      int successorRow = successor * words;
+      denseRows[row + (successor >>> 6)] |= 1L << successor;
+      for (int word = 0; word < words; word++) {
+        denseRows[row + word] |= denseRows[successorRow + word];
+      }
+    }
+  }
+
+  /**
+   * Helper method that builds the compressed row of a component from the rows of its successors.
+   *
+   * @param component id of the component
+   */
+  private void buildSparseRow(int component) {
+    CompressedBitSet row = CompressedBitSet.EMPTY;
+    for (int edge = components.successorStart(component);
+        edge < components.successorEnd(component);
+        edge++) {
+      int successor = components.successor(edge);
+      row = row.or(sparseRows[successor]).or(CompressedBitSet.of(successor));
+    }
+    sparseRows[component] = row;
+  }
+
+  /**
+   * Helper method that passes every component in the row of a component to an action, in
+   * increasing order.
+   *
+   * @param component id of the component
+   * @param action action to perform on each reached component
+   */
+  private void forEachInRow(int component, IntConsumer action) {
+    if (sparseRows != null) {
+      sparseRows[component].forEach(action);
+      return;
+    }
+    for (int word = 0; word < words; word++) {
+      for (long bits = denseRows[component * words + word]; bits != 0; bits &= bits - 1) {
+        action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+      }
+    }
+  }
+
+  /**
+   * Helper method that counts the verticies each member of a component reaches.
+   *
+   * @param component id of the component
+   * @return number of verticies in the closure row of each member
+   */
+  private long reachedCount(int component) {
+    long[] count = {cyclic[component] ? components.size(component) : 0};
+    forEachInRow(component, reached -> count[0] += components.size(reached));
+    return count[0];
+  }
+
+  /**
+   * Number of edges in the closure.
+   *
+   * @return long number of edges
+   */
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Checks if the closure has an edge between two verticies.
+   *
+   * @param source id of the vertex the edge leaves from
+   * @param destination id of the vertex the edge arrives at
+   * @return true if there is a path of one or more edges from source to destination
+   */
+  public boolean hasEdge(int source, int destination) {
+    int from = components.componentOf(source);
+    int to = components.componentOf(destination);
+
+    if (from == to) {
+      return cyclic[from];
+    }
+    if (sparseRows != null) {
+      return sparseRows[from].get(to);
+    }
+    return (denseRows[from * words + (to >>> 6)] & (1L << to)) != 0;
+  }
+
+  /**
+   * Gets every vertex a vertex has a closure edge to.
+   *
+   * @param vertex id of the vertex
+   * @return ids of the destinations, in increasing order
+   */
+  public int[] destinations(int vertex) {
+    int component = components.componentOf(vertex);
+    int[] destinations = new int[(int) reachedCount(component)];
+    int[] size = {0};
+    IntConsumer addMembers =
+        reached -> {
+          for (int member = components.memberStart(reached);
+              member < components.memberEnd(reached);
+              member++) {
+            destinations[size[0]++] = components.member(member);
+          }
+        };
+
+    if (cyclic[component]) {
+      addMembers.accept(component);
+    }
+    forEachInRow(component, addMembers);
+    Arrays.sort(destinations);
+    return destinations;
+  }
+
+  /**
+   * Checks if the closure has exactly the given number of edges. The closure contains every edge
+   * of the graph, so the graph is transitive exactly when the closure has as many edges as it has.
+   *
+   * @param graphEdgeCount number of edges of the graph the closure was built from
+   * @return true if the graph is transitive, false otherwise
+   */
+  public boolean isTransitive(int graphEdgeCount) {
+    return edgeCount == graphEdgeCount;
+  }
+
+  /**
+   * Estimates the number of bytes of heap used by the closure.
+   *
+   * @return approximate memory footprint in bytes
+   */
+  public long estimateFootprintBytes() {
+    if (denseRows != null) {
+      return denseRows.length * 8L;
+    }
+    long bytes = 0;
+    for (CompressedBitSet row : sparseRows) {
+      bytes += row.estimateFootprintBytes();
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,65 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * Numbers the verticies of a graph 0 to n - 1 in their total order, and maps between each vertex
+ * and its id.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public interface VertexDictionary<T> {
+
+  /**
+   * Creates a dictionary of verticies that are already sorted.
+   *
+   * @param verticies every vertex, in increasing order
+   * @param storage where to keep the dictionary
+   * @return dictionary where the id of each vertex is its position in the array
+   */
+  static <T> VertexDictionary<T> create(Object[] verticies, GraphStorage storage) {
+    if (storage == GraphStorage.OFF_HEAP) {
+      return new OffHeapVertexDictionary<T>(verticies);
+    }
+    return new HeapVertexDictionary<T>(verticies);
+  }
+
+  /**
+   * Number of verticies in the dictionary.
+   *
+   * @return int number of verticies
+   */
+  int size();
+
+  /**
+   * Gets the id of a vertex.
+   *
+   * @param vertex vertex to find the id of
+   * @return id of the vertex, or -1 if the vertex is not in the dictionary
+   */
+  int getId(T vertex);
+
+  /**
+   * Gets the vertex with the given id.
+   *
+   * @param id id of the vertex
+   * @return T value of the vertex
+   */
+  T getVertex(int id);
+
+  /**
+   * Estimates the number of bytes of heap used by the dictionary, not counting the vertex values.
+   *
+   * @return approximate heap footprint in bytes
+   */
+  long estimateHeapBytes();
+
+  /**
+   * Estimates the number of bytes the dictionary uses outside the heap.
+   *
+   * @return approximate off-heap footprint in bytes
+   */
+  long estimateOffHeapBytes();
+}
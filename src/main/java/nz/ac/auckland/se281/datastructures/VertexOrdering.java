@@ -0,0 +1,217 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * An order to relabel the verticies of a graph in, so that verticies that are connected get labels
+ * that are close together and the gaps between neighbours in {@link CompressedAdjacency} get
+ * smaller. Every ordering ignores the direction of the edges and breaks ties by vertex id, so the
+ * labels only depend on the graph.
+ *
+ * <p>Only the compressed rows are relabelled, so only the traversal of {@link ParallelReachability}
+ * reads them in the new order. The {@link GraphIndex} that the ordered searches, components and
+ * reachability index walk keeps its ids in vertex order, which defines the order of their outputs.
+ *
+ * <p>The ordering of graphs that are not given one explicitly is read from the {@value #PROPERTY}
+ * system property, e.g. {@code -Dgraph.ordering=rcm}, and is {@link #NONE} by default.
+ */
+public enum VertexOrdering {
+  /** Keeps the verticies in their total order. */
+  NONE {
+    @Override
+    public int[] sequence(GraphIndex<?> index) {
+      return identity(index.vertexCount());
+    }
+  },
+
+  /** Orders the verticies as a breadth first search visits them, from each unvisited vertex. */
+  BFS {
+    @Override
+    public int[] sequence(GraphIndex<?> index) {
+      return breadthFirst(index, identity(index.vertexCount()), false);
+    }
+  },
+
+  /**
+   * Reverse Cuthill-McKee, which searches breadth first from a vertex of least degree in each
+   * component, visiting neighbours in increasing degree order, and then reverses the whole order.
+   */
+  RCM {
+    @Override
+    public int[] sequence(GraphIndex<?> index) {
+      int[] sequence = breadthFirst(index, byDegree(index, false), true);
+      for (int i = 0, j = sequence.length - 1; i < j; i++, j--) {
+        int swap = sequence[i];
+        sequence[i] = sequence[j];
+        sequence[j] = swap;
+      }
+      return sequence;
+    }
+  },
+
+  /** Orders the verticies from the most edges to the fewest, so the busiest rows sit together. */
+  DEGREE {
+    @Override
+    public int[] sequence(GraphIndex<?> index) {
+      return byDegree(index, true);
+    }
+  };
+
+  public static final String PROPERTY = "graph.ordering";
+
+  /**
+   * Gets the ordering selected by the {@value #PROPERTY} system property.
+   *
+   * @return the selected ordering, or {@link #NONE} if the property is not set
+   * @throws IllegalArgumentException if the property names no ordering
+   */
+  public static VertexOrdering configured() {
+    String name = System.getProperty(PROPERTY);
+    if (name == null) {
+      return NONE;
+    }
+    return valueOf(name.trim().toUpperCase());
+  }
+
+  /**
+   * Orders the verticies of an indexed graph.
+   *
+   * @param index primitive index of the graph
+   * @return id of the vertex given each label, so the vertex at position i is relabelled i
+   */
+  public abstract int[] sequence(GraphIndex<?> index);
+
+  /**
+   * Helper method that lists the ids 0 to count - 1.
+   *
+   * @param count number of ids
+   * @return ids in increasing order
+   */
+  private static int[] identity(int count) {
+    int[] ids = new int[count];
+    Arrays.setAll(ids, id -> id);
+    return ids;
+  }
+
+  /**
+   * Helper method that counts the edges leaving and arriving at a vertex.
+   *
+   * @param index primitive index of the graph
+   * @param vertex id of the vertex
+   * @return total degree of the vertex
+   */
+  private static int degree(GraphIndex<?> index, int vertex) {
+    return index.end(vertex) - index.start(vertex) + index.reverseEnd(vertex)
+        - index.reverseStart(vertex);
+  }
+
+  /**
+   * Helper method that sorts the verticies by total degree with a counting sort, keeping verticies
+   * of equal degree in id order.
+   *
+   * @param index primitive index of the graph
+   * @param descending true to put the largest degree first, false for the smallest first
+   * @return ids of the verticies in degree order
+   */
+  private static int[] byDegree(GraphIndex<?> index, boolean descending) {
+    int vertexCount = index.vertexCount();
+    int maxDegree = 0;
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      maxDegree = Math.max(maxDegree, degree(index, vertex));
+    }
+
+    int[] starts = new int[maxDegree + 2];
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      int degree = degree(index, vertex);
+      starts[(descending ? maxDegree - degree : degree) + 1]++;
+    }
+    for (int bucket = 0; bucket <= maxDegree; bucket++) {
+      starts[bucket + 1] += starts[bucket];
+    }
+    int[] sorted = new int[vertexCount];
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      int degree = degree(index, vertex);
+      sorted[starts[descending ? maxDegree - degree : degree]++] = vertex;
+    }
+    return sorted;
+  }
+
+  /**
+   * Helper method that visits every vertex breadth first, ignoring the direction of the edges,
+   * starting a new search from each unvisited vertex in the given order.
+   *
+   * @param index primitive index of the graph
+   * @param starts verticies to start searches from, in the order to try them
+   * @param byDegree true to enqueue the new neighbours of a vertex in increasing degree order,
+   *     false to enqueue them in id order
+   * @return ids of the verticies in the order visited
+   */
+  private static int[] breadthFirst(GraphIndex<?> index, int[] starts, boolean byDegree) {
+    int vertexCount = index.vertexCount();
+    boolean[] visited = new boolean[vertexCount];
+    int[] order = new int[vertexCount];
+    int head = 0;
+    int tail = 0;
+    // Degree in the high half and id in the low half, so sorting the keys sorts by degree then id
+    long[] keys = byDegree ? new long[16] : null;
+
+    for (int start : starts) {
+      if (visited[start]) {
+        continue;
+      }
+      visited[start] = true;
+      order[tail++] = start;
+
+      while (head < tail) {
+        int vertex = order[head++];
+        int first = tail;
+        for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+          tail = enqueue(index.target(edge), visited, order, tail);
+        }
+        for (int edge = index.reverseStart(vertex); edge < index.reverseEnd(vertex); edge++) {
+          tail = enqueue(index.source(edge), visited, order, tail);
+        }
+
+        if (byDegree && tail - first > 1) {
+          int count = tail - first;
+          if (keys.length < count) {
+            keys = new long[Math.max(count, keys.length * 2)];
+          }
+          for (int i = 0; i < count; i++) {
+            keys[i] = (long) degree(index, order[first + i]) << 32 | order[first + i];
+          }
+          Arrays.sort(keys, 0, count);
+          for (int i = 0; i < count; i++) {
+            order[first + i] = (int) keys[i];
+          }
+        } else if (tail - first > 1) {
+          // Forward and reverse neighbours are each sorted, but not with each other
+          Arrays.sort(order, first, tail);
+        }
+      }
+    }
+    return order;
+  }
+
+  /**
+   * Helper method that appends a vertex to the search order if it has not been visited.
+   *
+   * @param vertex id of the vertex
+   * @param visited whether each vertex has been visited
+   * @param order search order so far
+   * @param tail position after the last vertex in the order
+   * @return position after the last vertex in the order, after appending
+   */
+  private static int enqueue(int vertex, boolean[] visited, int[] order, int tail) {
+    if (visited[vertex]) {
+      return tail;
+    }
+    visited[vertex] = true;
+    order[tail] = vertex;
+    return tail + 1;
+  }
+}
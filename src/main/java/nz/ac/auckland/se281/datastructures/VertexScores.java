@@ -0,0 +1,178 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A score for every vertex of a graph, kept in a primitive double array indexed by vertex id, such
+ * as a centrality. The highest scores are found by a selection over a bounded heap in O(V log k),
+ * so asking for a few top verticies of a very large graph never sorts all of them.
+ */
+public class VertexScores {
+  private final double[] scores;
+
+  /**
+   * Wraps an array of scores, taking ownership of it.
+   *
+   * @param scores score of each vertex id
+   */
+  public VertexScores(double[] scores) {
+    this.scores = scores;
+  }
+
+  /**
+   * Scores every vertex by its degree centrality, the number of edges leaving or arriving at it
+   * divided by the number of other verticies, computed in parallel from the row offsets.
+   *
+   * @param index primitive index of the graph
+   * @return degree centrality of each vertex
+   */
+  public static VertexScores degreeCentrality(GraphIndex<?> index) {
+    int vertexCount = index.vertexCount();
+    double others = Math.max(1, vertexCount - 1);
+    double[] scores = new double[vertexCount];
+    IntStream.range(0, vertexCount)
+        .parallel()
+        .forEach(
+            vertex ->
+                scores[vertex] =
+                    (index.end(vertex)
+                            - index.start(vertex)
+                            + index.reverseEnd(vertex)
+                            - index.reverseStart(vertex))
+                        / others);
+    return new VertexScores(scores);
+  }
+
+  /**
+   * Number of verticies with a score.
+   *
+   * @return int number of verticies
+   */
+  public int vertexCount() {
+    return scores.length;
+  }
+
+  /**
+   * Gets the score of a vertex.
+   *
+   * @param vertex id of the vertex
+   * @return score of the vertex
+   */
+  public double score(int vertex) {
+    return scores[vertex];
+  }
+
+  /**
+   * Finds the verticies with the highest scores, breaking ties by the smaller id.
+   *
+   * @param k largest number of verticies to return
+   * @return ids of up to k verticies, from the highest score down
+   */
+  public int[] top(int k) {
+    int size = Math.min(k, scores.length);
+    // Min-heap of the best verticies so far, with the worst of them at the root
+    int[] heap = new int[size];
+    int count = 0;
+
+    for (int vertex = 0; vertex < scores.length && size > 0; vertex++) {
+      if (count < size) {
+        heap[count] = vertex;
+        siftUp(heap, count++);
+      } else if (isBetter(vertex, heap[0])) {
+        heap[0] = vertex;
+        siftDown(heap, count);
+      }
+    }
+
+    // Popping the worst vertex each time fills the array from the back
+    int[] top = new int[count];
+    for (int position = count - 1; position >= 0; position--) {
+      top[position] = heap[0];
+      heap[0] = heap[position];
+      siftDown(heap, position);
+    }
+    return top;
+  }
+
+  /**
+   * Helper method that checks if one vertex ranks above another.
+   *
+   * @param vertex1 id of one vertex
+   * @param vertex2 id of another vertex
+   * @return true if vertex1 has a higher score, or the same score and a smaller id
+   */
+  private boolean isBetter(int vertex1, int vertex2) {
+    int order = Double.compare(scores[vertex1], scores[vertex2]);
+    return order > 0 || (order == 0 && vertex1 < vertex2);
+  }
+
+  /**
+   * Helper method that moves the vertex at a position up the heap until its parent ranks above it.
+   *
+   * @param heap heap of vertex ids
+   * @param position position of the vertex
+   */
+  private void siftUp(int[] heap, int position) {
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (!isBetter(heap[parent], heap[position])) {
+        return;
+      }
+      swap(heap, parent, position);
+      position = parent;
+    }
+  }
+
+  /**
+   * Helper method that moves the root of the heap down until both children rank above it.
+   *
+   * @param heap heap of vertex ids
+   * @param count number of verticies in the heap
+   */
+  private void siftDown(int[] heap, int count) {
+    int position = 0;
+    while (true) {
+      int worst = position;
+      int left = 2 * position + 1;
+      int right = left + 1;
+      if (left < count && isBetter(heap[worst], heap[left])) {
+        worst = left;
+      }
+      if (right < count && isBetter(heap[worst], heap[right])) {
+        worst = right;
+      }
+      if (worst == position) {
+        return;
+      }
+      swap(heap, position, worst);
+      position = worst;
+    }
+  }
+
+  /**
+   * Helper method that swaps two entries of the heap.
+   *
+   * @param heap heap of vertex ids
+   * @param i position of one entry
+   * @param j position of another entry
+   */
+  private static void swap(int[] heap, int i, int j) {
+    int swap = heap[i];
+    heap[i] = heap[j];
+    heap[j] = swap;
+  }
+
+  /**
+   * Gets a copy of every score.
+   *
+   * @return score of each vertex id
+   */
+  public double[] toArray() {
+    return Arrays.copyOf(scores, scores.length);
+  }
+}
@@ -0,0 +1,50 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A set of vertex ids visited by a traversal, kept as one bit per vertex in an array of longs. A
+ * set only lives for one traversal, so it is always kept on the heap, where it is cheap to allocate
+ * and collect, whatever the {@link GraphStorage} of the graph. It is not safe to share between
+ * threads.
+ */
+public class VisitedSet {
+  private final long[] words;
+
+  /**
+   * Creates an empty set.
+   *
+   * @param vertexCount number of verticies that could be visited
+   */
+  public VisitedSet(int vertexCount) {
+    words = new long[(vertexCount + 63) >>> 6];
+  }
+
+  /**
+   * Marks a vertex as visited.
+   *
+   * @param id id of the vertex
+   * @return true if the vertex was not visited before, false otherwise
+   */
+  public boolean add(int id) {
+    int word = id >>> 6;
+    long bits = words[word];
+    if ((bits & (1L << id)) != 0) {
+      return false;
+    }
+    words[word] = bits | (1L << id);
+    return true;
+  }
+
+  /**
+   * Checks if a vertex has been visited.
+   *
+   * @param id id of the vertex
+   * @return true if the vertex has been visited, false otherwise
+   */
+  public boolean contains(int id) {
+    return (words[id >>> 6] & (1L << id)) != 0;
+  }
+}
@@ -0,0 +1,208 @@
+// AUTHOR: Tony Lim
+// DATE CREATED: 19/10/2026
+// LAST EDITED: 19/10/2026
+
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * The weakly connected components of a graph, the groups of verticies that are connected when the
+ * direction of the edges is ignored. Components are found with a lock-free union-find that every
+ * thread updates at once: the edges of each range of verticies are united in parallel, and each
+ * union links the larger of two roots under the smaller with a compare-and-set, retrying if another
+ * thread linked either root first. Finds halve their paths with compare-and-sets as well, which
+ * another thread can only make shorter.
+ *
+ * <p>Parents always have a smaller id than their children, so the root of each component is its
+ * minimum vertex. Components are numbered in the order of their minimum vertex, and the members of
+ * each component are kept in increasing id order.
+ */
+public class WeaklyConnectedComponents {
+  // Number of verticies united by each parallel task
+  private static final int RANGE_SIZE = 4096;
+
+  private final int[] componentOf;
+  private final int componentCount;
+  private final int[] memberOffsets;
+  private final int[] members;
+  private final int[] positionOf;
+
+  /**
+   * Computes the components of an indexed graph.
+   *
+   * @param index primitive index of the graph
+   */
+  public WeaklyConnectedComponents(GraphIndex<?> index) {
+    int vertexCount = index.vertexCount();
+    AtomicIntegerArray parent = new AtomicIntegerArray(vertexCount);
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      parent.set(vertex, vertex);
+    }
+
+    int rangeCount = (vertexCount + RANGE_SIZE - 1) / RANGE_SIZE;
+    IntStream.range(0, rangeCount)
+        .parallel()
+        .forEach(
+            range -> {
+              int to = Math.min(vertexCount, (range + 1) * RANGE_SIZE);
+              for (int vertex = range * RANGE_SIZE; vertex < to; vertex++) {
+                for (int edge = index.start(vertex); edge < index.end(vertex); edge++) {
+                  union(parent, vertex, index.target(edge));
+                }
+              }
+            });
+
+    // Roots are minimum verticies, so numbering them in id order numbers components the same way
+    componentOf = new int[vertexCount];
+    int count = 0;
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      int root = find(parent, vertex);
+      componentOf[vertex] = root == vertex ? count++ : componentOf[root];
+    }
+    componentCount = count;
+
+    // Group the members of each component, in increasing id order
+    memberOffsets = new int[componentCount + 1];
+    members = new int[vertexCount];
+    positionOf = new int[vertexCount];
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      memberOffsets[componentOf[vertex] + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      memberOffsets[component + 1] += memberOffsets[component];
+    }
+    int[] fill = Arrays.copyOf(memberOffsets, componentCount);
+    for (int vertex = 0; vertex < vertexCount; vertex++) {
+      int component = componentOf[vertex];
+      positionOf[vertex] = fill[component] - memberOffsets[component];
+      members[fill[component]++] = vertex;
+    }
+  }
+
+  /**
+   * Helper method that finds the root of a vertex, pointing every other vertex on the way at its
+   * grandparent.
+   *
+   * @param parent parent of each vertex
+   * @param vertex vertex to find the root of
+   * @return root of the vertex
+   */
+  private static int find(AtomicIntegerArray parent, int vertex) {
+    while (true) {
+      int up = parent.get(vertex);
+      if (up == vertex) {
+        return vertex;
+      }
+      int grandparent = parent.get(up);
+      if (up != grandparent) {
+        // Losing the race is harmless, as the other thread only moved the vertex closer to the root
+        parent.compareAndSet(vertex, up, grandparent);
+      }
+      vertex = grandparent;
+    }
+  }
+
+  /**
+   * Helper method that unites the components of two verticies.
+   *
+   * @param parent parent of each vertex
+   * @param vertex1 one vertex
+   * @param vertex2 another vertex
+   */
+  private static void union(AtomicIntegerArray parent, int vertex1, int vertex2) {
+    while (true) {
+      int root1 = find(parent, vertex1);
+      int root2 = find(parent, vertex2);
+      if (root1 == root2) {
+        return;
+      }
+      // Only a root can be linked, so the link fails if another thread linked the larger root first
+      int larger = Math.max(root1, root2);
+      if (parent.compareAndSet(larger, larger, Math.min(root1, root2))) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Number of components.
+   *
+   * @return int number of components
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Gets the component a vertex belongs to.
+   *
+   * @param vertex id of the vertex
+   * @return id of its component
+   */
+  public int componentOf(int vertex) {
+    return componentOf[vertex];
+  }
+
+  /**
+   * Number of verticies in a component.
+   *
+   * @param component id of the component
+   * @return int number of members
+   */
+  public int size(int component) {
+    return memberOffsets[component + 1] - memberOffsets[component];
+  }
+
+  /**
+   * Gets the minimum vertex of a component.
+   *
+   * @param component id of the component
+   * @return id of the minimum member
+   */
+  public int representative(int component) {
+    return members[memberOffsets[component]];
+  }
+
+  /**
+   * Gets the position of the first member of a component.
+   *
+   * @param component id of the component
+   * @return position to pass to {@link #member(int)}
+   */
+  public int memberStart(int component) {
+    return memberOffsets[component];
+  }
+
+  /**
+   * Gets the position after the last member of a component.
+   *
+   * @param component id of the component
+   * @return position after the last member
+   */
+  public int memberEnd(int component) {
+    return memberOffsets[component + 1];
+  }
+
+  /**
+   * Gets the member at a position.
+   *
+   * @param position position between {@link #memberStart(int)} and {@link #memberEnd(int)}
+   * @return id of the member vertex
+   */
+  public int member(int position) {
+    return members[position];
+  }
+
+  /**
+   * Gets the position of a vertex among the members of its component, counting from 0.
+   *
+   * @param vertex id of the vertex
+   * @return position of the vertex within its component
+   */
+  public int positionOf(int vertex) {
+    return positionOf[vertex];
+  }
+}
@@ -0,0 +1,213 @@
+package nz.ac.auckland.se281.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process wide statistics of the graph engine. The single instance is registered with the platform
+ * MBean server under {@link #OBJECT_NAME} the first time it is used, so it can be inspected with
+ * standard JDK tooling such as JConsole or JDK Mission Control.
+ */
+public class GraphEngineStats implements GraphEngineStatsMBean {
+  public static final String OBJECT_NAME = "nz.ac.auckland.se281:type=GraphEngineStats";
+
+  private static final GraphEngineStats INSTANCE = register(new GraphEngineStats());
+
+  /**
+   * Gets the statistics shared by every graph in this process.
+   *
+   * @return the registered statistics instance
+   */
+  public static GraphEngineStats getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers the statistics with the platform MBean server. Failing to register (for example when
+   * JMX is unavailable) only disables the JMX view, the counters are still updated.
+   *
+   * @param stats statistics to register
+   * @return the same statistics instance
+   */
+  private static GraphEngineStats register(GraphEngineStats stats) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(stats, name);
+      }
+    } catch (JMException | SecurityException e) {
+      // Statistics are still collected, they are just not visible over JMX
+    }
+    return stats;
+  }
+
+  private final LongAdder graphsLoaded = new LongAdder();
+  private final LongAdder totalLoadNanos = new LongAdder();
+  private final AtomicLong lastLoadNanos = new AtomicLong();
+  private final AtomicLong lastFootprintBytes = new AtomicLong();
+  private final LongAdder queryCount = new LongAdder();
+  private final LongAdder totalQueryNanos = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final AtomicLong loadNumbers = new AtomicLong();
+
+  // Graphs that are still reachable, an entry is dropped once its graph is garbage collected
+  private final Map<Object, LoadedGraph> loadedGraphs = new WeakHashMap<>();
+
+  private GraphEngineStats() {}
+
+  /**
+   * Records that a graph has been constructed.
+   *
+   * @param graph the graph that was constructed, only weakly referenced
+   * @param vertexCount number of verticies in the graph
+   * @param edgeCount number of edges in the graph
+   * @param nanos time taken to construct the graph
+   * @param footprintBytes estimated memory footprint of the graph
+   */
+  public void recordLoad(
+      Object graph, int vertexCount, int edgeCount, long nanos, long footprintBytes) {
+    graphsLoaded.increment();
+    totalLoadNanos.add(nanos);
+    lastLoadNanos.set(nanos);
+    lastFootprintBytes.set(footprintBytes);
+    LoadedGraph loaded =
+        new LoadedGraph(loadNumbers.incrementAndGet(), vertexCount, edgeCount, footprintBytes);
+    synchronized (loadedGraphs) {
+      loadedGraphs.put(graph, loaded);
+    }
+  }
+
+  /**
+   * Records that a query has been answered.
+   *
+   * @param nanos time taken to answer the query
+   */
+  public void recordQuery(long nanos) {
+    queryCount.increment();
+    totalQueryNanos.add(nanos);
+  }
+
+  /**
+   * Records a lookup of a cached result.
+   *
+   * @param hit true if the result was already cached, false if it had to be computed
+   */
+  public void recordCacheLookup(boolean hit) {
+    if (hit) {
+      cacheHits.increment();
+    } else {
+      cacheMisses.increment();
+    }
+  }
+
+  @Override
+  public long getGraphsLoaded() {
+    return graphsLoaded.sum();
+  }
+
+  @Override
+  public double getLastLoadTimeMillis() {
+    return lastLoadNanos.get() / 1e6;
+  }
+
+  @Override
+  public double getTotalLoadTimeMillis() {
+    return totalLoadNanos.sum() / 1e6;
+  }
+
+  @Override
+  public long getLastGraphFootprintBytes() {
+    return lastFootprintBytes.get();
+  }
+
+  @Override
+  public Map<String, Long> getGraphFootprintBytes() {
+    List<LoadedGraph> graphs;
+    synchronized (loadedGraphs) {
+      graphs = new ArrayList<LoadedGraph>(loadedGraphs.values());
+    }
+    graphs.sort(Comparator.comparingLong(loaded -> loaded.number));
+
+    Map<String, Long> footprints = new LinkedHashMap<String, Long>();
+    for (LoadedGraph loaded : graphs) {
+      footprints.put(loaded.toString(), loaded.footprintBytes);
+    }
+    return footprints;
+  }
+
+  @Override
+  public long getQueryCount() {
+    return queryCount.sum();
+  }
+
+  @Override
+  public double getAverageQueryTimeMicros() {
+    long count = queryCount.sum();
+    return count == 0 ? 0 : totalQueryNanos.sum() / 1e3 / count;
+  }
+
+  @Override
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  @Override
+  public double getCacheHitRate() {
+    long hits = cacheHits.sum();
+    long lookups = hits + cacheMisses.sum();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public void reset() {
+    graphsLoaded.reset();
+    totalLoadNanos.reset();
+    lastLoadNanos.set(0);
+    lastFootprintBytes.set(0);
+    loadNumbers.set(0);
+    synchronized (loadedGraphs) {
+      loadedGraphs.clear();
+    }
+    queryCount.reset();
+    totalQueryNanos.reset();
+    cacheHits.reset();
+    cacheMisses.reset();
+  }
+
+  /** Size of a graph that has been loaded, kept for as long as the graph is in use. */
+  private static final class LoadedGraph {
+    private final long number;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final long footprintBytes;
+
+    private LoadedGraph(long number, int vertexCount, int edgeCount, long footprintBytes) {
+      this.number = number;
+      this.vertexCount = vertexCount;
+      this.edgeCount = edgeCount;
+      this.footprintBytes = footprintBytes;
+    }
+
+    @Override
+    public String toString() {
+      return "#" + number + " (" + vertexCount + " verticies, " + edgeCount + " edges)";
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package nz.ac.auckland.se281.metrics;
+
+import java.util.Map;
+
+/** Management interface exposing live statistics of the graph engine over JMX. */
+public interface GraphEngineStatsMBean {
+  /**
+   * Gets the number of graphs that have been constructed.
+   *
+   * @return number of graphs loaded
+   */
+  long getGraphsLoaded();
+
+  /**
+   * Gets the time taken to construct the most recently loaded graph.
+   *
+   * @return load time in milliseconds
+   */
+  double getLastLoadTimeMillis();
+
+  /**
+   * Gets the total time spent constructing graphs.
+   *
+   * @return total load time in milliseconds
+   */
+  double getTotalLoadTimeMillis();
+
+  /**
+   * Gets the estimated memory footprint of the most recently loaded graph.
+   *
+   * @return footprint in bytes
+   */
+  long getLastGraphFootprintBytes();
+
+  /**
+   * Gets the estimated memory footprint of each loaded graph that is still in use, in the order
+   * they were loaded. A graph drops out once it has been garbage collected.
+   *
+   * @return footprint in bytes, by load number and size of the graph
+   */
+  Map<String, Long> getGraphFootprintBytes();
+
+  /**
+   * Gets the number of queries answered by all graphs. A query answered while answering another
+   * query on the same thread is only counted as part of the outer query.
+   *
+   * @return number of queries
+   */
+  long getQueryCount();
+
+  /**
+   * Gets the mean time taken to answer a query.
+   *
+   * @return mean query time in microseconds
+   */
+  double getAverageQueryTimeMicros();
+
+  /**
+   * Gets the number of lookups that were answered by a cached result.
+   *
+   * @return number of cache hits
+   */
+  long getCacheHits();
+
+  /**
+   * Gets the number of lookups that had to compute their result.
+   *
+   * @return number of cache misses
+   */
+  long getCacheMisses();
+
+  /**
+   * Gets the proportion of cache lookups that were hits.
+   *
+   * @return hit rate between 0 and 1, or 0 if there have been no lookups
+   */
+  double getCacheHitRate();
+
+  /** Resets all counters back to zero. */
+  void reset();
+}
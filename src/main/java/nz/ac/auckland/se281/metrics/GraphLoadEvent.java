@@ -0,0 +1,28 @@
+package nz.ac.auckland.se281.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event that is committed once a graph has been constructed. The duration of
+ * the event covers building the adjacency structures of the graph.
+ */
+@Name("nz.ac.auckland.se281.GraphLoad")
+@Label("Graph Load")
+@Category("Graph Calculator")
+@Description("Construction of a graph from its verticies and edges")
+public class GraphLoadEvent extends Event {
+  @Label("Verticies")
+  public int vertexCount;
+
+  @Label("Edges")
+  public int edgeCount;
+
+  @Label("Memory Footprint")
+  @DataAmount
+  public long footprintBytes;
+}
@@ -0,0 +1,26 @@
+package nz.ac.auckland.se281.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event that is committed for every query made against a graph, such as
+ * finding the roots or running a search. Queries that call other queries produce nested events.
+ */
+@Name("nz.ac.auckland.se281.GraphQuery")
+@Label("Graph Query")
+@Category("Graph Calculator")
+@Description("A query against a loaded graph")
+public class GraphQueryEvent extends Event {
+  @Label("Query")
+  public String query;
+
+  @Label("Verticies")
+  public int vertexCount;
+
+  @Label("Edges")
+  public int edgeCount;
+}
@@ -0,0 +1,145 @@
+package nz.ac.auckland.se281.server;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import nz.ac.auckland.se281.GraphCalculator;
+import nz.ac.auckland.se281.Main;
+
+/**
+ * A server on the loopback interface that accepts the commands of the command line interface over
+ * TCP. Each connection is a session of its own, exactly as if the client typed into {@link Main},
+ * and it ends when the client sends {@code exit} or closes the connection.
+ *
+ * <p>A file is parsed the first time any session opens it, and every later session shares the same
+ * immutable graph, so queries do not pay for parsing and many clients can query one graph at once.
+ * Each connection is handled on a virtual thread when the runtime supports them (Java 21 or later),
+ * and on a pooled platform thread otherwise.
+ */
+public class QueryServer implements Closeable {
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections = newConnectionExecutor();
+  private final ConcurrentMap<String, GraphCalculator> openGraphs =
+      new ConcurrentHashMap<String, GraphCalculator>();
+  private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+  private final RoutingPrintStream out;
+  private final Thread acceptor;
+
+  /**
+   * Starts a server that listens on a port of the loopback interface.
+   *
+   * @param port port to listen on, or 0 for any free port
+   * @throws IOException if the port cannot be bound
+   */
+  public QueryServer(int port) throws IOException {
+    serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+    out = new RoutingPrintStream(System.out);
+    System.setOut(out);
+
+    acceptor = new Thread(this::acceptConnections, "graph-calculator-acceptor");
+    acceptor.start();
+  }
+
+  /**
+   * Helper method that creates the executor connections run on, using virtual threads if the
+   * runtime has them.
+   *
+   * @return executor with one thread per task
+   */
+  private static ExecutorService newConnectionExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      // Virtual threads are not available before Java 21
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  /**
+   * Gets the port the server listens on.
+   *
+   * @return local port of the server
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Gets the number of files that have been parsed and are kept loaded.
+   *
+   * @return number of loaded graphs
+   */
+  public int getOpenGraphCount() {
+    return openGraphs.size();
+  }
+
+  /** Accepts connections until the server is closed, handing each to its own thread. */
+  private void acceptConnections() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        connections.execute(() -> handle(socket));
+      } catch (IOException e) {
+        // The server socket was closed, so stop accepting
+      }
+    }
+  }
+
+  /**
+   * Runs a command line session over a connection, then closes it.
+   *
+   * @param socket connection to a client
+   */
+  private void handle(Socket socket) {
+    try (socket;
+        PrintStream client =
+            new PrintStream(
+                new BufferedOutputStream(socket.getOutputStream()), true, StandardCharsets.UTF_8)) {
+      openSockets.add(socket);
+      out.bind(client);
+      new Main(new Scanner(socket.getInputStream(), StandardCharsets.UTF_8), openGraphs).start();
+      client.flush();
+    } catch (IOException | NoSuchElementException e) {
+      // The client disconnected without sending exit
+    } finally {
+      out.unbind();
+      openSockets.remove(socket);
+    }
+  }
+
+  /**
+   * Stops accepting connections, closes the open ones and restores standard out.
+   *
+   * @throws IOException if the server socket cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    // Blocked reads are not interrupted, so close the sockets to end their sessions
+    for (Socket socket : openSockets) {
+      socket.close();
+    }
+    connections.shutdownNow();
+    try {
+      acceptor.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (System.out == out) {
+      System.setOut(out.getFallback());
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package nz.ac.auckland.se281.server;
+
+import java.io.PrintStream;
+
+/**
+ * A print stream that sends what each thread prints to the stream bound to that thread, or to a
+ * fallback stream if none is bound. Installing it as {@link System#out} lets every connection of
+ * the {@link QueryServer} run the unchanged command line interface, which prints to standard out,
+ * and still only see its own output.
+ *
+ * <p>The common print methods go straight to the bound stream, so connections do not contend on the
+ * lock of this stream.
+ */
+class RoutingPrintStream extends PrintStream {
+  private final PrintStream fallback;
+  private final ThreadLocal<PrintStream> target = new ThreadLocal<PrintStream>();
+
+  /**
+   * Creates a routing stream.
+   *
+   * @param fallback stream for threads with no bound stream
+   */
+  RoutingPrintStream(PrintStream fallback) {
+    super(fallback, true);
+    this.fallback = fallback;
+  }
+
+  /**
+   * Gets the stream threads print to when no stream is bound to them.
+   *
+   * @return the fallback stream
+   */
+  PrintStream getFallback() {
+    return fallback;
+  }
+
+  /**
+   * Sends everything the current thread prints to a stream until {@link #unbind()} is called.
+   *
+   * @param stream stream for the current thread
+   */
+  void bind(PrintStream stream) {
+    target.set(stream);
+  }
+
+  /** Sends everything the current thread prints back to the fallback stream. */
+  void unbind() {
+    target.remove();
+  }
+
+  /**
+   * Helper method that gets the stream of the current thread.
+   *
+   * @return the bound stream, or the fallback stream
+   */
+  private PrintStream current() {
+    PrintStream stream = target.get();
+    return stream == null ? fallback : stream;
+  }
+
+  @Override
+  public void write(int b) {
+    current().write(b);
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) {
+    current().write(buf, off, len);
+  }
+
+  @Override
+  public void flush() {
+    current().flush();
+  }
+
+  @Override
+  public void print(String s) {
+    PrintStream stream = current();
+    stream.print(s);
+    // A prompt has no line break, so flush for the client to see it before it is asked for input
+    stream.flush();
+  }
+
+  @Override
+  public void print(Object obj) {
+    PrintStream stream = current();
+    stream.print(obj);
+    stream.flush();
+  }
+
+  @Override
+  public void println() {
+    current().println();
+  }
+
+  @Override
+  public void println(String x) {
+    current().println(x);
+  }
+
+  @Override
+  public void println(Object x) {
+    current().println(x);
+  }
+}
@@ -1,7 +1,40 @@
 package nz.ac.auckland.se281;
 
 import static nz.ac.auckland.se281.Command.*;
-
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nz.ac.auckland.se281.datastructures.Edge;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphIndex;
+import nz.ac.auckland.se281.datastructures.GraphStorage;
+import nz.ac.auckland.se281.datastructures.ReachabilityIndex;
+import nz.ac.auckland.se281.datastructures.StronglyConnectedComponents;
+import nz.ac.auckland.se281.datastructures.TransitiveClosure;
+import nz.ac.auckland.se281.metrics.GraphEngineStats;
+import nz.ac.auckland.se281.server.QueryServer;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -13,6 +46,9 @@ import org.junit.runners.Suite.SuiteClasses;
   MainTest.Task2.class, // Uncomment this line when you start Task 2
   MainTest.Task3.class, // Uncomment this line when you start Task 3
   MainTest.YourTests.class, // Uncomment this line to run your own tests
+  MainTest.ServerTests.class,
+  MainTest.ReloadTests.class,
+  MainTest.IndexTests.class,
 })
 public class MainTest {
   public static class Task1 extends CliTest {
@@ -470,5 +506,682 @@ public class MainTest {
       assertContains("Successfully opened graph from file o.txt");
       assertContains("[0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 100, 101]");
     }
+
+    // roots of cyclic graphs that are not equivalence relations
+    @Test
+    public void TY_01_P_roots() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", LIST_ROOT_VERTICIES);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("[1, 5]");
+    }
+
+    @Test
+    public void TY_02_P_sccs() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", LIST_SCCS);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("[[1, 2, 3], [4, 6], [5]]");
+    }
+
+    @Test
+    public void TY_03_P_condensation() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", LIST_CONDENSATION);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("1: [1, 2, 3]");
+      assertContains("1 -> 4");
+      assertDoesNotContain("4 -> 5");
+    }
+
+    @Test
+    public void TY_01_B_sccs() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", LIST_SCCS);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("[[0, 1, 2, 3, 4, 5], [6]]");
+    }
+
+    @Test
+    public void TY_04_P_reachable() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", REACHABLE, "2 6", REACHABLE, "6 1", REACHABLE, "5 5");
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("Vertex 6 is reachable from vertex 2");
+      assertContains("Vertex 1 is NOT reachable from vertex 6");
+      assertContains("Vertex 5 is reachable from vertex 5");
+    }
+
+    @Test
+    public void TY_05_P_reachable_missing_vertex() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", REACHABLE, "1 7");
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("Error: vertex '7' not found in the graph");
+    }
+
+    // all relation properties in one pass
+    @Test
+    public void TY_01_C_check_all() throws Exception {
+      runCommands(OPEN_FILE, "c.txt", CHECK_ALL);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("The graph is reflexive");
+      assertContains("The graph is symmetric");
+      assertContains("The graph is transitive");
+      assertContains("The graph is NOT antisymmetric");
+      assertContains("The graph is an equivalence relation");
+    }
+
+    @Test
+    public void TY_01_D_check_all() throws Exception {
+      runCommands(OPEN_FILE, "d.txt", CHECK_ALL);
+      assertContains("Successfully opened graph from file d.txt");
+      assertContains("The graph is reflexive");
+      assertContains("The graph is NOT symmetric");
+      assertContains("The graph is transitive");
+      assertContains("The graph is antisymmetric");
+      assertContains("The graph is NOT an equivalence relation");
+    }
+
+    // topological sort
+    @Test
+    public void TY_05_N_topological_sort() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", TOPOLOGICAL_SORT);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains(
+          "Topological order: [0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,"
+              + " 19, 20, 21, 22, 23, 24]");
+      assertContains("Layer 2: [3, 4, 5, 6]");
+      assertContains("Layer 7: [24]");
+    }
+
+    @Test
+    public void TY_06_P_topological_sort_cyclic() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", TOPOLOGICAL_SORT);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("Error: the graph has a cycle, so it has no topological order");
+      assertDoesNotContain("Topological order:");
+    }
+
+    // shortest paths by number of edges
+    @Test
+    public void TY_06_N_shortest_path() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", SHORTEST_PATH, "4 23");
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("Shortest path from vertex 4 to vertex 23 has 4 edges: [4, 9, 16, 20, 23]");
+    }
+
+    @Test
+    public void TY_07_N_shortest_path_unreachable() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", SHORTEST_PATH, "24 0");
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("There is no path from vertex 24 to vertex 0");
+    }
+
+    @Test
+    public void TY_01_Q_shortest_path_ignores_weights() throws Exception {
+      runCommands(OPEN_FILE, "q.txt", SHORTEST_PATH, "6 4");
+      assertContains("Successfully opened graph from file q.txt");
+      assertContains("Shortest path from vertex 6 to vertex 4 has 3 edges: [6, 1, 2, 4]");
+    }
+
+    // weighted shortest paths
+    @Test
+    public void TY_02_Q_dijkstra_distances() throws Exception {
+      runCommands(OPEN_FILE, "q.txt", DIJKSTRA_DISTANCES, 1);
+      assertContains("Successfully opened graph from file q.txt");
+      assertContains("{1=0.0, 2=3.0, 3=1.0, 4=4.0, 5=5.0}");
+    }
+
+    @Test
+    public void TY_03_Q_dijkstra_path() throws Exception {
+      runCommands(OPEN_FILE, "q.txt", DIJKSTRA_PATH, "6 4");
+      assertContains("Successfully opened graph from file q.txt");
+      assertContains("Shortest path from vertex 6 to vertex 4 has weight 4.5: [6, 1, 3, 2, 4]");
+    }
+
+    @Test
+    public void TY_04_Q_dijkstra_no_path() throws Exception {
+      runCommands(OPEN_FILE, "q.txt", DIJKSTRA_PATH, "5 1");
+      assertContains("Successfully opened graph from file q.txt");
+      assertContains("There is no path from vertex 5 to vertex 1");
+    }
+
+    // degree statistics
+    @Test
+    public void TY_08_N_degree_stats() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", DEGREE_STATS);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("The graph has 25 vertices, 34 edges, 0 self-loops and 0 isolated vertices");
+      assertContains("Maximum out-degree 2, maximum in-degree 2, mean degree 1.36, density 0.0544");
+      assertDoesNotContain("Degree 0:");
+    }
+
+    @Test
+    public void TY_09_N_adjacency_size() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", ADJACENCY_SIZE);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains(
+          "The adjacency of 34 edges takes 240 bytes as plain rows and 138 bytes compressed, 32.47"
+              + " bits per edge");
+    }
+
+    @Test
+    public void TY_10_N_adjacency_orderings() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", ADJACENCY_ORDERINGS, GRAPH_SEARCH_IBFS);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("NONE ordering: 138 bytes compressed");
+      assertContains("RCM ordering:");
+      assertContains("DEGREE ordering:");
+      assertContains("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20");
+    }
+
+    @Test
+    public void TY_02_D_degree_histogram() throws Exception {
+      runCommands(OPEN_FILE, "d.txt", DEGREE_HISTOGRAM);
+      assertContains("Successfully opened graph from file d.txt");
+      assertContains("The graph has 2 vertices, 3 edges, 2 self-loops and 0 isolated vertices");
+      assertContains("Maximum out-degree 2, maximum in-degree 2, mean degree 1.50, density 0.7500");
+      assertContains("Degree 0: 0 by out-degree, 0 by in-degree");
+      assertContains("Degree 1: 1 by out-degree, 1 by in-degree");
+      assertContains("Degree 2-3: 1 by out-degree, 1 by in-degree");
+      assertDoesNotContain("Degree 4-7:");
+    }
+
+    // weakly connected components and searching them in parallel
+    @Test
+    public void TY_03_D_roots_with_self_loop() throws Exception {
+      runCommands(OPEN_FILE, "d.txt", LIST_ROOT_VERTICIES);
+      assertContains("Successfully opened graph from file d.txt");
+      // A self-loop stays inside its component, so it does not stop its vertex being a root
+      assertContains("[0]");
+    }
+
+    @Test
+    public void TY_06_O_wccs() throws Exception {
+      runCommands(OPEN_FILE, "o.txt", LIST_WCCS);
+      assertContains("Successfully opened graph from file o.txt");
+      assertContains("[[0, 1], [2, 3], [10, 11], [12, 13], [20, 21], [100, 101]]");
+    }
+
+    @Test
+    public void TY_07_P_wccs() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", LIST_WCCS);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("[[1, 2, 3, 4, 6], [5]]");
+    }
+
+    @Test
+    public void TY_07_O_parallel_BFS() throws Exception {
+      runCommands(OPEN_FILE, "o.txt", GRAPH_SEARCH_PBFS);
+      assertContains("Successfully opened graph from file o.txt");
+      assertContains("[0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 100, 101]");
+    }
+
+    @Test
+    public void TY_11_N_parallel_DFS() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", GRAPH_SEARCH_PDFS);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains(
+          "[0, 1, 3, 7, 15, 19, 22, 24, 8, 4, 9, 16, 20, 23, 10, 2, 5, 11, 17, 21, 12, 6, 13, 18,"
+              + " 14]");
+    }
+
+    // hop distances from many sources at once
+    @Test
+    public void TY_12_N_hop_distances() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", HOP_DISTANCES, "4,20");
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("From vertex 4: {4=0, 9=1, 10=1, 16=2, 19=3, 20=3, 22=4, 23=4, 24=5}");
+      assertContains("From vertex 20: {20=0, 22=1, 23=1, 24=2}");
+    }
+
+    @Test
+    public void TY_13_N_hop_distances_missing_vertex() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", HOP_DISTANCES, "4,99");
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("Error: vertex '99' not found in the graph");
+      assertDoesNotContain("From vertex 4:");
+    }
+
+    @Test
+    public void TY_08_P_root_hop_distances() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", ROOT_HOP_DISTANCES);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("From vertex 1: {1=0, 2=1, 3=2, 4=3, 6=4}");
+      assertContains("From vertex 5: {5=0}");
+    }
+
+    // transitive closure
+    @Test
+    public void TY_09_P_transitive_closure() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", TRANSITIVE_CLOSURE);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("The transitive closure has 20 edges");
+      assertContains("1 -> [1, 2, 3, 4, 6]");
+      assertContains("4 -> [4, 6]");
+      assertContains("5 -> [5]");
+    }
+
+    @Test
+    public void TY_01_J_closure_size_then_transitivity() throws Exception {
+      runCommands(OPEN_FILE, "j.txt", CLOSURE_SIZE, CHECK_TRANSITIVITY);
+      assertContains("Successfully opened graph from file j.txt");
+      assertContains("The transitive closure has 4 edges");
+      assertContains("The graph is transitive");
+      assertDoesNotContain("0 -> [");
+    }
+
+    // watching the open file for changes
+    @Test
+    public void TY_01_A_watch_file() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", WATCH_FILE, WATCH_FILE, LIST_ROOT_VERTICIES);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("Watching file a.txt for changes");
+      assertContains("File a.txt is already being watched");
+      assertContains("[0]");
+    }
+
+    @Test
+    public void TY_10_P_cycle() throws Exception {
+      runCommands(OPEN_FILE, "p.txt", CHECK_ACYCLIC);
+      assertContains("Successfully opened graph from file p.txt");
+      assertContains("The graph is NOT acyclic");
+      assertContains("Cycle: 1 -> 2 -> 3 -> 1");
+    }
+
+    @Test
+    public void TY_14_N_acyclic() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", CHECK_ACYCLIC);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("The graph is acyclic");
+      assertDoesNotContain("Cycle:");
+    }
+
+    @Test
+    public void TY_15_N_pagerank() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", PAGERANK, 3);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("Top 3 vertices by PageRank after");
+      assertContains("1. Vertex 24: 0.1681");
+      assertContains("2. Vertex 22: 0.0920");
+      assertContains("3. Vertex 23: 0.0920");
+    }
+
+    @Test
+    public void TY_16_N_degree_centrality() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", DEGREE_CENTRALITY, 2, DEGREE_CENTRALITY, 0);
+      assertContains("Top 2 vertices by degree centrality:");
+      assertContains("1. Vertex 16: 0.1667");
+      assertContains("2. Vertex 17: 0.1667");
+      assertContains("Error: count '0' must be a whole number greater than 0");
+    }
+
+    @Test
+    public void TY_17_N_reachable_from() throws Exception {
+      runCommands(OPEN_FILE, "n.txt", REACHABLE_FROM, "19,20", REACHABLE_FROM, "3,99");
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("5 vertices are reachable from [19, 20]: [19, 20, 22, 23, 24]");
+      assertContains("Error: vertex '99' not found in the graph");
+    }
+
+    // repeated commands reuse their cached output
+    @Test
+    public void TY_02_C_repeated_commands() throws Exception {
+      runCommands(
+          OPEN_FILE,
+          "c.txt",
+          GRAPH_SEARCH_IBFS,
+          COMPUTE_EQUIVALENCE,
+          0,
+          GRAPH_SEARCH_IBFS,
+          COMPUTE_EQUIVALENCE,
+          0,
+          OPEN_FILE,
+          "a.txt",
+          GRAPH_SEARCH_IBFS);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("[0, 1, 2, 3]");
+      assertContains("[0]");
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("[0, 1, 2, 3, 4, 5]");
+    }
+
+    // listing the graph a page at a time
+    @Test
+    public void TY_02_A_list_pages() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", LIST_VERTICIES, 1, 2, LIST_EDGES, 3, 100);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("Verticies from position 1 (2 of 6):");
+      assertContains("Edges from position 3 (2 of 5):");
+      assertContains("1 -> 4");
+      assertContains("1 -> 5");
+      assertDoesNotContain("0 -> 2");
+    }
+
+    @Test
+    public void TY_03_A_list_invalid_page() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", LIST_EDGES, -1, 2);
+      assertContains(
+          "Error: offset '-1' and limit '2' must be whole numbers that are not negative");
+      assertDoesNotContain("Edges from position");
+    }
+
+    @Test
+    public void TY_01_R_invalid_weight() throws Exception {
+      runCommands(OPEN_FILE, "r.txt", LIST_ROOT_VERTICIES);
+      assertContains("Error: file 'r.txt' has an edge weight 'heavy' that is not a finite number");
+      assertContains("Error: no valid file open");
+      assertDoesNotContain("Successfully opened graph from file r.txt");
+    }
+
+    @Test
+    public void TY_01_S_infinite_weight() throws Exception {
+      runCommands(OPEN_FILE, "q.txt", OPEN_FILE, "s.txt", INFO);
+      assertContains(
+          "Error: file 's.txt' has an edge weight 'Infinity' that is not a finite number");
+      assertContains("File name: q.txt");
+    }
+
+    @Test
+    public void TY_01_T_duplicate_edges_listing() throws Exception {
+      runCommands(OPEN_FILE, "t.txt", LIST_EDGES, 0, 10, DEGREE_STATS);
+      assertContains("Edges from position 0 (6 of 6):");
+      assertContains("The graph has 2 vertices, 4 edges, 2 self-loops and 0 isolated vertices");
+    }
+
+    @Test
+    public void TY_02_T_duplicate_edges_properties() throws Exception {
+      runCommands(OPEN_FILE, "t.txt", CHECK_REFLEXIVITY, CHECK_SYMMETRY, CHECK_ALL, CLOSURE_SIZE);
+      assertContains("The graph is reflexive");
+      assertContains("The graph is symmetric");
+      assertContains("The graph is NOT antisymmetric");
+      assertContains("The graph is an equivalence relation");
+      assertContains("The transitive closure has 4 edges");
+      assertDoesNotContain("The graph is NOT reflexive");
+    }
+
+    @Test
+    public void TY_18_N_off_heap_storage() throws Exception {
+      System.setProperty("graph.storage", "off-heap");
+      try {
+        runCommands(
+            OPEN_FILE,
+            "c.txt",
+            LIST_ROOT_VERTICIES,
+            CHECK_ALL,
+            COMPUTE_EQUIVALENCE,
+            0,
+            OPEN_FILE,
+            "n.txt",
+            SHORTEST_PATH,
+            "4 23",
+            REACHABLE,
+            "4 23",
+            CLOSURE_SIZE,
+            OPEN_FILE,
+            "q.txt",
+            DIJKSTRA_DISTANCES,
+            1,
+            CHECK_SYMMETRY);
+      } finally {
+        System.clearProperty("graph.storage");
+      }
+      assertContains("The graph is reflexive");
+      assertContains("The graph is an equivalence relation");
+      assertContains("[0]");
+      assertContains("Shortest path from vertex 4 to vertex 23 has 4 edges: [4, 9, 16, 20, 23]");
+      assertContains("Vertex 23 is reachable from vertex 4");
+      assertContains("The transitive closure has 143 edges");
+      assertContains("{1=0.0, 2=3.0, 3=1.0, 4=4.0, 5=5.0}");
+      assertContains("The graph is NOT symmetric");
+    }
+  }
+
+  public static class ServerTests {
+    /**
+     * Runs one session against a server and returns everything the server sent back.
+     *
+     * @param port port of the server
+     * @param commands lines to send, ending with exit
+     * @return output of the session
+     */
+    private static String runSession(int port, String... commands) throws IOException {
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+        for (String command : commands) {
+          socket.getOutputStream().write((command + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        socket.shutdownOutput();
+        return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      }
+    }
+
+    @Test(timeout = 10000)
+    public void TS_01_N_single_session() throws Exception {
+      try (QueryServer server = new QueryServer(0)) {
+        String output =
+            runSession(server.getPort(), "open_file n.txt", "shortest_path 0 24", "exit");
+        assertTrue(output.contains("Successfully opened graph from file n.txt"));
+        assertTrue(
+            output.contains(
+                "Shortest path from vertex 0 to vertex 24 has 7 edges: [0, 1, 3, 7, 15, 19, 22,"
+                    + " 24]"));
+        assertTrue(output.contains("You closed the terminal. Goodbye."));
+      }
+    }
+
+    @Test(timeout = 10000)
+    public void TS_02_N_concurrent_sessions_share_graph() throws Exception {
+      try (QueryServer server = new QueryServer(0)) {
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        List<Future<String>> sessions = new ArrayList<>();
+        for (int client = 0; client < 100; client++) {
+          sessions.add(
+              clients.submit(
+                  () ->
+                      runSession(
+                          server.getPort(),
+                          "open_file n.txt",
+                          "list_root_verticies",
+                          "reachable 4 23",
+                          "exit")));
+        }
+
+        for (Future<String> session : sessions) {
+          String output = session.get();
+          assertTrue(output.contains("[0]"));
+          assertTrue(output.contains("Vertex 23 is reachable from vertex 4"));
+          assertFalse(output.contains("Error"));
+        }
+        clients.shutdown();
+        assertEquals(1, server.getOpenGraphCount());
+      }
+    }
+
+    @Test(timeout = 10000)
+    public void TS_03_missing_file() throws Exception {
+      try (QueryServer server = new QueryServer(0)) {
+        String output = runSession(server.getPort(), "open_file missing.txt", "info", "exit");
+        assertTrue(output.contains("Error: file 'missing.txt' not found in `testcases` folder"));
+        assertTrue(output.contains("Error: no valid file open"));
+        assertEquals(0, server.getOpenGraphCount());
+      }
+    }
+
+    @Test(timeout = 10000)
+    public void TS_04_A_watch_file_refused() throws Exception {
+      try (QueryServer server = new QueryServer(0)) {
+        String output = runSession(server.getPort(), "open_file a.txt", "watch_file", "exit");
+        assertTrue(
+            output.contains(
+                "Error: file a.txt is shared with other sessions, so it cannot be watched"));
+        assertFalse(output.contains("Watching file a.txt for changes"));
+      }
+    }
+  }
+
+  public static class ReloadTests {
+    private static final Path FILE = Path.of("testcases", "append.txt");
+
+    private static final Path NEXT_FILE = Path.of("testcases", "append.txt.next");
+
+    @After
+    public void deleteFiles() throws IOException {
+      Files.deleteIfExists(FILE);
+      Files.deleteIfExists(NEXT_FILE);
+    }
+
+    /**
+     * Replaces the test file in one step, so the watcher never reads it half written.
+     *
+     * @param text new text of the file
+     */
+    private static void writeFile(String text) throws IOException {
+      Files.writeString(NEXT_FILE, text);
+      Files.move(
+          NEXT_FILE,
+          FILE,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Runs a command of a calculator and returns what it printed.
+     *
+     * @param command command to run
+     * @return output of the command
+     */
+    private static String capture(Runnable command) {
+      PrintStream original = System.out;
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+      try {
+        command.run();
+      } finally {
+        System.setOut(original);
+      }
+      return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test(timeout = 10000)
+    public void TR_01_append_to_watched_file() throws Exception {
+      writeFile("digraph append {\n 1 -> 2;\n 2 -> 3;\n}\n");
+      GraphCalculator calculator = new GraphCalculator("append.txt");
+      try {
+        assertTrue(calculator.watch());
+        assertTrue(capture(calculator::printRoots).contains("[1]"));
+        assertTrue(capture(calculator::printClosureSize).contains("has 3 edges"));
+        long loads = GraphEngineStats.getInstance().getGraphsLoaded();
+
+        // 4 -> 1 makes 4 the root of the path, and 5 is a root that only has a self-loop
+        writeFile("digraph append {\n 1 -> 2;\n 2 -> 3;\n 4 -> 1;\n 5 -> 5;\n}\n");
+        // The watcher may reload first, which leaves this call nothing to do
+        calculator.reload();
+
+        assertTrue(capture(calculator::printRoots).contains("[4, 5]"));
+        assertTrue(capture(calculator::printClosureSize).contains("has 7 edges"));
+        assertTrue(capture(calculator::printVerticiesEdges).contains("5 -> 5"));
+        // The edges were added to the graph already built, rather than building a new one
+        assertEquals(loads, GraphEngineStats.getInstance().getGraphsLoaded());
+      } finally {
+        calculator.stopWatching();
+      }
+    }
+  }
+
+  public static class IndexTests {
+    /**
+     * Builds the index of a random graph whose edges mostly go from lower to higher verticies, so
+     * that it has some long paths, with a few edges going back to close cycles.
+     *
+     * @param seed seed of the random graph
+     * @param vertexCount number of verticies
+     * @param edgeCount number of edges to draw, of which repeats are dropped
+     * @return index of the graph
+     */
+    private static GraphIndex<String> randomIndex(long seed, int vertexCount, int edgeCount) {
+      Random random = new Random(seed);
+      Set<String> verticies = new HashSet<>();
+      for (int vertex = 0; vertex < vertexCount; vertex++) {
+        verticies.add(String.valueOf(vertex));
+      }
+
+      List<Edge<String>> edges = new ArrayList<>();
+      for (int edge = 0; edge < edgeCount; edge++) {
+        int source = random.nextInt(vertexCount);
+        int destination = random.nextInt(vertexCount);
+        if (source > destination && random.nextInt(20) != 0) {
+          int swap = source;
+          source = destination;
+          destination = swap;
+        }
+        edges.add(new Edge<>(String.valueOf(source), String.valueOf(destination)));
+      }
+      return GraphIndex.create(
+          verticies, edges, Comparator.comparingInt(Integer::parseInt), GraphStorage.HEAP);
+    }
+
+    @Test
+    public void TI_01_sparse_reachability_matches_dense() {
+      for (long seed = 0; seed < 20; seed++) {
+        GraphIndex<String> index = randomIndex(seed, 150, 250);
+        StronglyConnectedComponents components = new StronglyConnectedComponents(index);
+        ReachabilityIndex dense = new ReachabilityIndex(index, components);
+        // Without a closure, the interval labels are used
+        ReachabilityIndex sparse = new ReachabilityIndex(components, null);
+
+        for (int source = 0; source < index.vertexCount(); source++) {
+          for (int destination = 0; destination < index.vertexCount(); destination++) {
+            assertEquals(
+                dense.canReach(source, destination), sparse.canReach(source, destination));
+          }
+        }
+      }
+    }
+
+    @Test
+    public void TI_02_compressed_closure_matches_dense() {
+      for (long seed = 0; seed < 20; seed++) {
+        GraphIndex<String> index = randomIndex(seed, 150, 250);
+        StronglyConnectedComponents components = new StronglyConnectedComponents(index);
+        TransitiveClosure dense = new TransitiveClosure(index, components);
+        // No condensation is small enough for dense rows, so every row is a compressed bitset
+        TransitiveClosure compressed = new TransitiveClosure(index, components, 0);
+
+        assertEquals(dense.edgeCount(), compressed.edgeCount());
+        for (int source = 0; source < index.vertexCount(); source++) {
+          assertArrayEquals(dense.destinations(source), compressed.destinations(source));
+          for (int destination = 0; destination < index.vertexCount(); destination++) {
+            assertEquals(
+                dense.hasEdge(source, destination), compressed.hasEdge(source, destination));
+          }
+        }
+      }
+    }
+
+    @Test
+    public void TI_03_queries_with_missing_verticies() {
+      Set<Edge<String>> edges = new HashSet<>();
+      edges.add(new Edge<>("1", "2"));
+      Graph<String> graph = new Graph<>(new HashSet<>(Arrays.asList("1", "2")), edges);
+
+      assertFalse(graph.isReachable("1", "9"));
+      assertFalse(graph.isReachable("9", "1"));
+      assertTrue(graph.getShortestPath("9", "2").isEmpty());
+      assertTrue(graph.getShortestWeightedPath("1", "9").isEmpty());
+      assertTrue(graph.getShortestDistances("9").isEmpty());
+      assertEquals(
+          "{9={}, 1={1=0, 2=1}}", graph.getHopDistances(Arrays.asList("9", "1")).toString());
+      assertEquals("[1, 2]", graph.getReachableFrom(Arrays.asList("9", "1")).toString());
+    }
+
+    @Test
+    public void TI_04_stats_count_top_level_queries() {
+      Set<Edge<String>> edges = new HashSet<>();
+      edges.add(new Edge<>("1", "1"));
+      Graph<String> graph = new Graph<>(new HashSet<>(Arrays.asList("1")), edges);
+      GraphEngineStats stats = GraphEngineStats.getInstance();
+
+      long queries = stats.getQueryCount();
+      // Asks whether the graph is reflexive, symmetric and transitive along the way
+      assertTrue(graph.isEquivalence());
+      assertEquals(queries + 1, stats.getQueryCount());
+
+      assertTrue(stats.getGraphFootprintBytes().values().contains(graph.estimateFootprintBytes()));
+    }
   }
 }